@@ -0,0 +1,204 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Die Klasse AsyncHolidayManager bietet die Abfragen eines HolidayManagers asynchron an.
+ * Die Abfragen laufen auf einem frei wählbaren Executor, z.B. einem Thread-Pool oder - ab Java 21 -
+ * Executors.newVirtualThreadPerTaskExecutor().
+ * Gleiche Abfragen, die gleichzeitig laufen, werden zusammengefasst: Solange eine Abfrage berechnet wird,
+ * erhalten alle weiteren gleichen Abfragen deren Ergebnis, statt es erneut zu berechnen.
+ * Die gelieferten Listen sind daher nicht veränderbar. Fehler der Abfrage (z.B. NullPointerException)
+ * werden über die zurückgegebene Future gemeldet.
+ */
+public final class AsyncHolidayManager {
+
+    public static final int DEFAULT_MAXIMUM_IN_FLIGHT = 1024;
+
+    private final HolidayManager manager;
+    private final Executor executor;
+    private final int maximumInFlight;
+    private final ConcurrentMap<List<Object>, CompletableFuture<List<CalendarEntry>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * Erstellt einen AsyncHolidayManager, der höchstens DEFAULT_MAXIMUM_IN_FLIGHT laufende Abfragen zusammenfasst.
+     * @param manager ist der abzufragende HolidayManager
+     * @param executor führt die Abfragen aus
+     */
+    public AsyncHolidayManager(HolidayManager manager, Executor executor) {
+        this(manager, executor, DEFAULT_MAXIMUM_IN_FLIGHT);
+    }
+
+    /**
+     * @param manager ist der abzufragende HolidayManager
+     * @param executor führt die Abfragen aus
+     * @param maximumInFlight ist die maximale Anzahl gleichzeitig vorgemerkter Abfragen. Darüber hinaus werden
+     *                        Abfragen ohne Zusammenfassung berechnet, damit die Vormerkungen nicht unbegrenzt wachsen.
+     */
+    public AsyncHolidayManager(HolidayManager manager, Executor executor, int maximumInFlight) {
+        if (manager == null || executor == null) {
+            throw new NullPointerException("manager oder executor war null");
+        }
+        if (maximumInFlight <= 0) {
+            throw new IllegalArgumentException("maximumInFlight muss positiv sein");
+        }
+        this.manager = manager;
+        this.executor = executor;
+        this.maximumInFlight = maximumInFlight;
+    }
+
+    /**
+     * @return Liefert den abgefragten HolidayManager.
+     */
+    public HolidayManager getManager() {
+        return this.manager;
+    }
+
+    /**
+     * Asynchrone Variante von HolidayManager.calendarSheet(LocalDate).
+     */
+    public CompletableFuture<List<CalendarEntry>> calendarSheet(LocalDate date) {
+        return submit(Arrays.asList("calendarSheet(LocalDate)", date), () -> manager.calendarSheet(date));
+    }
+
+    /**
+     * Asynchrone Variante von HolidayManager.calendarSheet(YearMonth).
+     */
+    public CompletableFuture<List<CalendarEntry>> calendarSheet(YearMonth month) {
+        return submit(Arrays.asList("calendarSheet(YearMonth)", month), () -> manager.calendarSheet(month));
+    }
+
+    /**
+     * Asynchrone Variante von HolidayManager.calendarSheet(int).
+     */
+    public CompletableFuture<List<CalendarEntry>> calendarSheet(int year) {
+        return submit(Arrays.asList("calendarSheet(int)", year), () -> manager.calendarSheet(year));
+    }
+
+    /**
+     * Asynchrone Variante von HolidayManager.getBetween(LocalDate, LocalDate).
+     */
+    public CompletableFuture<List<CalendarEntry>> getBetween(LocalDate from, LocalDate to) {
+        return submit(Arrays.asList("getBetween", from, to), () -> manager.getBetween(from, to));
+    }
+
+    /**
+     * Asynchrone Variante von HolidayManager.getNext(LocalDate).
+     */
+    public CompletableFuture<List<CalendarEntry>> getNext(LocalDate reference) {
+        return submit(Arrays.asList("getNext(LocalDate)", reference), () -> manager.getNext(reference));
+    }
+
+    /**
+     * Asynchrone Variante von HolidayManager.getNext(LocalDate, int).
+     */
+    public CompletableFuture<List<CalendarEntry>> getNext(LocalDate reference, int n) {
+        return submit(Arrays.asList("getNext(LocalDate, int)", reference, n), () -> manager.getNext(reference, n));
+    }
+
+    /**
+     * @return Liefert die Anzahl aller bisher gestellten Abfragen.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return Liefert die Anzahl der Abfragen, die das Ergebnis einer bereits laufenden gleichen Abfrage erhalten haben.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Liefert die Anzahl der Abfragen, die wegen Erreichens von maximumInFlight nicht vorgemerkt wurden.
+     */
+    public long getUntrackedCount() {
+        return untracked.sum();
+    }
+
+    /**
+     * @return Liefert die Anzahl der Abfragen, die tatsächlich berechnet wurden oder werden.
+     */
+    public long getComputationCount() {
+        return requests.sum() - coalesced.sum();
+    }
+
+    /**
+     * @return Liefert die Anzahl der aktuell laufenden, vorgemerkten Abfragen.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return Liefert die maximale Anzahl gleichzeitig vorgemerkter Abfragen.
+     */
+    public int getMaximumInFlight() {
+        return this.maximumInFlight;
+    }
+
+    /**
+     * Jeder Aufrufer erhält eine eigene Kopie der gemeinsamen Future, damit das Abbrechen durch einen Aufrufer
+     * die anderen Aufrufer nicht betrifft.
+     */
+    private CompletableFuture<List<CalendarEntry>> submit(List<Object> key, Supplier<List<CalendarEntry>> query) {
+        requests.increment();
+        CompletableFuture<List<CalendarEntry>> future = new CompletableFuture<>();
+        if (inFlight.size() >= maximumInFlight) {
+            untracked.increment();
+            execute(null, future, query);
+            return future;
+        }
+        CompletableFuture<List<CalendarEntry>> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.increment();
+            return running.copy();
+        }
+        execute(key, future, query);
+        return future.copy();
+    }
+
+    private void execute(List<Object> key, CompletableFuture<List<CalendarEntry>> future, Supplier<List<CalendarEntry>> query) {
+        Runnable task = () -> {
+            List<CalendarEntry> result = null;
+            Throwable failure = null;
+            try {
+                result = Collections.unmodifiableList(query.get());
+            } catch (Throwable ex) {
+                failure = ex;
+            }
+            //Erst austragen, dann abschließen: Wer das Ergebnis sieht, löst mit einer neuen Abfrage eine neue Berechnung aus
+            if (key != null) {
+                inFlight.remove(key, future);
+            }
+            if (failure == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RuntimeException ex) {
+            if (key != null) {
+                inFlight.remove(key, future);
+            }
+            future.completeExceptionally(ex);
+        }
+    }
+}
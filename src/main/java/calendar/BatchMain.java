@@ -0,0 +1,211 @@
+package calendar;
+
+import holiday.FourDayWeekend;
+import holiday.Holiday;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kommandozeilen-Einstieg ohne JavaFX, z.B. für Batch-Jobs und Container.
+ * Auf dem Startpfad dieser Klasse liegen keine JavaFX Klassen, es wird also weder die JavaFX Runtime
+ * noch ein --module-path benötigt.
+ *
+ * <pre>
+ * java -cp HolidaysCalendar.jar calendar.BatchMain [--sample A|B|C] [--out datei] [--profile datei] [befehl argumente...]
+ *
+ * day     2024-12-24             Feiertage an einem Tag
+ * month   2024-12                Feiertage in einem Monat
+ * year    2024                   Feiertage in einem Jahr
+ * range   2024-01-01 2024-03-31  Feiertage zwischen zwei Daten (beide inklusive)
+ * next    2024-05-01 [n]         nächster Termin jedes Feiertags bzw. die nächsten n Termine
+ * bridges 2024-01-01 2024-12-31  Brückentage zwischen zwei Daten (beide inklusive)
+ * </pre>
+ * Wurde mit dem Maven-Profil "precompute" gebaut, werden Abfragen innerhalb des vorberechneten Jahresfensters
+ * aus den Tabellen beantwortet (siehe PrecomputedTable).
+ * Wird kein Befehl angegeben, werden Befehle zeilenweise von der Standardeingabe gelesen,
+ * die Ausgaben aufeinanderfolgender Befehle sind dann durch eine Leerzeile getrennt.
+ * Mit --profile werden die Abfragen in der angegebenen Datei gezählt (siehe QueryProfile) und beim nächsten Start
+ * vor dem ersten Befehl nachgespielt.
+ */
+public final class BatchMain {
+
+    //so viele der häufigsten Abfragen werden beim Start nachgespielt
+    private static final int WARM_UP_LIMIT = 256;
+    private static final long PROFILE_PERIOD_SECONDS = 60;
+
+    private final HolidayManager manager;
+    private final PrecomputedTable table;
+    private FourDayWeekend bridges;
+
+    private BatchMain(HolidayManager manager, PrecomputedTable table) {
+        this.manager = manager;
+        this.table = table;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String sample = "A";
+        String out = null;
+        String profileFile = null;
+        int i = 0;
+        while (i < args.length && args[i].startsWith("--")) {
+            if (args[i].equals("--sample") && i + 1 < args.length) {
+                sample = args[i + 1];
+            } else if (args[i].equals("--out") && i + 1 < args.length) {
+                out = args[i + 1];
+            } else if (args[i].equals("--profile") && i + 1 < args.length) {
+                profileFile = args[i + 1];
+            } else {
+                usage();
+                System.exit(2);
+                return;
+            }
+            i += 2;
+        }
+        List<Holiday> holidays = HolidayStock.sample(sample);
+        HolidayManager manager = new HolidayManager(holidays);
+        QueryProfile profile = null;
+        if (profileFile != null) {
+            profile = QueryProfile.load(Paths.get(profileFile));
+            profile.warmUp(manager, WARM_UP_LIMIT).join();
+            manager.setQueryProfile(profile);
+            profile.persistTo(Paths.get(profileFile), PROFILE_PERIOD_SECONDS, TimeUnit.SECONDS);
+        }
+        BatchMain batch = new BatchMain(manager, PrecomputedTable.forSample(sample, holidays));
+        Writer writer = out == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8);
+        try (BufferedWriter output = new BufferedWriter(writer, 1 << 16)) {
+            if (i < args.length) {
+                try {
+                    batch.execute(Arrays.copyOfRange(args, i, args.length), output);
+                } catch (IllegalArgumentException | DateTimeParseException ex) {
+                    output.flush();
+                    System.err.println("Fehler: " + ex.getMessage());
+                    usage();
+                    System.exit(1);
+                }
+            } else {
+                batch.executeAll(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), output);
+            }
+        } finally {
+            if (profile != null) {
+                profile.close();
+            }
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Aufruf: calendar.BatchMain [--sample A|B|C] [--out datei] [--profile datei] "
+                + "[day <datum> | month <jahr-monat> | year <jahr> | range <von> <bis> | next <datum> [n] | bridges <von> <bis>]");
+    }
+
+    /**
+     * Liest Befehle zeilenweise und führt sie nacheinander im selben Prozess aus.
+     * Leere Zeilen und Zeilen, die mit # beginnen, werden übersprungen.
+     * Fehlerhafte Befehle werden auf der Standardfehlerausgabe gemeldet und beenden die Verarbeitung nicht.
+     */
+    private void executeAll(BufferedReader input, BufferedWriter output) throws IOException {
+        String line;
+        while ((line = input.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                execute(line.split("\\s+"), output);
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                System.err.println("Fehler in \"" + line + "\": " + ex.getMessage());
+            }
+            output.newLine();
+        }
+    }
+
+    private void execute(String[] command, BufferedWriter output) throws IOException {
+        List<CalendarEntry> result;
+        switch (command[0]) {
+            case "day": {
+                LocalDate date = LocalDate.parse(argument(command, 1));
+                result = table.covers(date.getYear()) ? table.calendarSheet(date) : manager.calendarSheet(date);
+                break;
+            }
+            case "month": {
+                YearMonth month = YearMonth.parse(argument(command, 1));
+                result = table.covers(month.getYear()) ? table.calendarSheet(month) : manager.calendarSheet(month);
+                break;
+            }
+            case "year": {
+                int year = Integer.parseInt(argument(command, 1));
+                result = table.covers(year) ? table.calendarSheet(year) : manager.calendarSheet(year);
+                break;
+            }
+            case "range": {
+                LocalDate from = LocalDate.parse(argument(command, 1));
+                LocalDate to = LocalDate.parse(argument(command, 2));
+                result = table.covers(from, to) ? table.getBetween(from, to) : manager.getBetween(from, to);
+                break;
+            }
+            case "next":
+                result = command.length > 2
+                        ? manager.getNext(LocalDate.parse(command[1]), Integer.parseInt(command[2]))
+                        : manager.getNext(LocalDate.parse(argument(command, 1)));
+                break;
+            case "bridges":
+                result = bridges(LocalDate.parse(argument(command, 1)), LocalDate.parse(argument(command, 2)));
+                break;
+            default:
+                throw new IllegalArgumentException("unbekannter Befehl: " + command[0]);
+        }
+        for (CalendarEntry entry : result) {
+            output.write(entry.toString());
+            output.newLine();
+        }
+    }
+
+    /**
+     * Brückentage werden aus den arbeitsfreien Feiertagen des Managers berechnet (siehe VacationOptimizer.PUBLIC_HOLIDAYS).
+     */
+    private List<CalendarEntry> bridges(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        if (bridges == null) {
+            List<Holiday> daysOff = new ArrayList<>();
+            for (Holiday holiday : manager.getHolidays()) {
+                if (VacationOptimizer.isDayOff(holiday)) {
+                    daysOff.add(holiday);
+                }
+            }
+            bridges = new FourDayWeekend(daysOff);
+        }
+        List<CalendarEntry> result = new ArrayList<>();
+        Temporal bridge = from.minusDays(1).with(bridges);
+        while (bridge != null && !LocalDate.from(bridge).isAfter(to)) {
+            result.add(new CalendarEntry(LocalDate.from(bridge), bridges));
+            bridge = bridge.with(bridges);
+        }
+        return result;
+    }
+
+    private static String argument(String[] command, int index) {
+        if (index >= command.length) {
+            throw new IllegalArgumentException("fehlendes Argument für " + command[0]);
+        }
+        return command[index];
+    }
+}
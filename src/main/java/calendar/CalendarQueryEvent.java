@@ -0,0 +1,43 @@
+package calendar;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder Event für eine einzelne Abfrage an einen HolidayManager.
+ * Durch den Schwellwert werden nur langsame Abfragen aufgezeichnet, sodass das Event auch in
+ * dauerhaft laufenden Aufzeichnungen aktiviert bleiben kann. Der Schwellwert lässt sich über
+ * die Einstellung "calendar.CalendarQuery#threshold" der Aufzeichnung anpassen.
+ */
+@Name("calendar.CalendarQuery")
+@Label("Calendar Query")
+@Category({"Holidays Calendar", "Queries"})
+@Description("Eine Abfrage an einen HolidayManager")
+@Threshold("10 ms")
+@StackTrace(false)
+final class CalendarQueryEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    @Description("Name der aufgerufenen Abfragemethode")
+    String query;
+
+    @Label("From")
+    @Description("Erstes Datum des abgefragten Zeitraums (inklusive)")
+    String from;
+
+    @Label("To")
+    @Description("Letztes Datum des abgefragten Zeitraums (inklusive)")
+    String to;
+
+    @Label("Holiday Count")
+    @Description("Anzahl der im Manager verwalteten Feiertage")
+    int holidayCount;
+
+    @Label("Result Size")
+    @Description("Anzahl der gelieferten Kalendereinträge")
+    int resultSize;
+}
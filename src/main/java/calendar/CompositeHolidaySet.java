@@ -0,0 +1,208 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verknüpfung zweier HolidaySets als Ansicht (siehe HolidaySet.union, intersect und minus).
+ * Die Ansicht speichert nur ihre beiden Mengen. Die Bitmengen der Tage werden je Jahr bitweise verknüpft,
+ * der Schnitt und die Differenz wählen über sie die Einträge aus und fragen eine Menge gar nicht erst ab,
+ * wenn die Bitmengen des Zeitraums das Ergebnis bereits festlegen. Kurze Zeiträume innerhalb eines Jahres werden
+ * dagegen über die Einträge selbst verknüpft, da die Bitmenge eines Jahres ein ganzes Kalenderblatt kosten kann.
+ */
+final class CompositeHolidaySet implements HolidaySet {
+
+    /**
+     * Art der Verknüpfung.
+     */
+    enum Operation {
+        UNION,
+        INTERSECTION,
+        DIFFERENCE
+    }
+
+    //bis zu so vielen Tagen wird über die Einträge statt über die Bitmengen der Jahre verknüpft
+    static final int SHORT_RANGE_DAYS = 7;
+
+    //wie HolidayManager: nach Datum, bei gleichem Datum nach dem Namen des Feiertags
+    private static final Comparator<CalendarEntry> BY_DATE_AND_NAME = Comparator.comparing(CalendarEntry::getDate)
+            .thenComparing(entry -> entry.getHoliday().toString());
+
+    private final Operation operation;
+    private final HolidaySet left;
+    private final HolidaySet right;
+
+    CompositeHolidaySet(Operation operation, HolidaySet left, HolidaySet right) {
+        if (operation == null || left == null || right == null) {
+            throw new NullPointerException();
+        }
+        this.operation = operation;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public long[] getDays(int year) {
+        long[] days = left.getDays(year);
+        long[] other = right.getDays(year);
+        for (int i = 0; i < YEAR_WORDS; i++) {
+            switch (operation) {
+                case UNION:
+                    days[i] |= other[i];
+                    break;
+                case INTERSECTION:
+                    days[i] &= other[i];
+                    break;
+                default:
+                    days[i] &= ~other[i];
+            }
+        }
+        return days;
+    }
+
+    @Override
+    public boolean contains(LocalDate date) {
+        switch (operation) {
+            case UNION:
+                return left.contains(date) || right.contains(date);
+            case INTERSECTION:
+                return left.contains(date) && right.contains(date);
+            default:
+                return left.contains(date) && !right.contains(date);
+        }
+    }
+
+    @Override
+    public List<CalendarEntry> getBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new NullPointerException();
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        if (operation == Operation.UNION) {
+            return merge(left.getBetween(from, to), right.getBetween(from, to));
+        }
+        if (from.getYear() == to.getYear() && to.getDayOfYear() - from.getDayOfYear() < SHORT_RANGE_DAYS) {
+            return byEntries(from, to);
+        }
+        //Bitmengen der Jahre von from bis to, die über die Auswahl der Einträge entscheiden
+        int firstYear = from.getYear();
+        long[][] days = new long[to.getYear() - firstYear + 1][];
+        boolean any = false;
+        for (int i = 0; i < days.length; i++) {
+            days[i] = operation == Operation.INTERSECTION ? getDays(firstYear + i) : right.getDays(firstYear + i);
+            any |= intersects(days[i], from, to, firstYear + i);
+        }
+        if (!any) {
+            //leerer Schnitt, bzw. nichts abzuziehen
+            return operation == Operation.INTERSECTION ? new ArrayList<>() : left.getBetween(from, to);
+        }
+        List<CalendarEntry> entries = operation == Operation.INTERSECTION
+                ? merge(left.getBetween(from, to), right.getBetween(from, to))
+                : left.getBetween(from, to);
+        List<CalendarEntry> result = new ArrayList<>(entries.size());
+        for (CalendarEntry entry : entries) {
+            LocalDate date = entry.getDate();
+            int index = date.getDayOfYear() - 1;
+            boolean marked = (days[date.getYear() - firstYear][index >>> 6] & 1L << index) != 0;
+            if (marked == (operation == Operation.INTERSECTION)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verknüpft über die Einträge beider Mengen. Ist die erste Menge leer, wird die zweite nicht abgefragt.
+     */
+    private List<CalendarEntry> byEntries(LocalDate from, LocalDate to) {
+        List<CalendarEntry> entries = left.getBetween(from, to);
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<CalendarEntry> other = right.getBetween(from, to);
+        Set<LocalDate> otherDays = new HashSet<>();
+        for (CalendarEntry entry : other) {
+            otherDays.add(entry.getDate());
+        }
+        if (operation == Operation.INTERSECTION) {
+            Set<LocalDate> days = new HashSet<>();
+            for (CalendarEntry entry : entries) {
+                days.add(entry.getDate());
+            }
+            days.retainAll(otherDays);
+            entries = merge(entries, other);
+            otherDays = days;
+        }
+        List<CalendarEntry> result = new ArrayList<>(entries.size());
+        for (CalendarEntry entry : entries) {
+            if (otherDays.contains(entry.getDate()) == (operation == Operation.INTERSECTION)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return wahr, falls die Bitmenge des Jahres einen Tag zwischen from und to (beide inklusive) enthält
+     */
+    private static boolean intersects(long[] days, LocalDate from, LocalDate to, int year) {
+        int first = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+        int last = year == to.getYear() ? to.getDayOfYear() - 1 : 365;
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            long mask = -1L;
+            if (word == first >>> 6) {
+                mask &= -1L << first;
+            }
+            if (word == last >>> 6) {
+                mask &= -1L >>> (63 - (last & 63));
+            }
+            if ((days[word] & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Vereinigt zwei sortierte Listen. Ein Eintrag der zweiten Liste entfällt nur, wenn die erste einen gleichen
+     * enthält, gleiche Einträge innerhalb einer Liste bleiben erhalten. Kommt ein Eintrag in beiden Listen mehrfach
+     * vor, wird er so oft übernommen wie in der Liste, in der er häufiger vorkommt.
+     */
+    private static List<CalendarEntry> merge(List<CalendarEntry> first, List<CalendarEntry> second) {
+        List<CalendarEntry> result = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            if (j == second.size() || i < first.size() && BY_DATE_AND_NAME.compare(first.get(i), second.get(j)) <= 0) {
+                result.add(first.get(i++));
+                continue;
+            }
+            CalendarEntry next = second.get(j);
+            //gleiche Einträge der ersten Liste sind bereits übernommen, da sie beim Vergleich Vorrang haben
+            if (countEqual(second, j, next) >= countEqual(first, i, next)) {
+                result.add(next);
+            }
+            j++;
+        }
+        return result;
+    }
+
+    /**
+     * @return Liefert die Anzahl der Einträge vor end, die gleich entry sind, gesucht wird nur unter denen desselben Tages.
+     */
+    private static int countEqual(List<CalendarEntry> entries, int end, CalendarEntry entry) {
+        int count = 0;
+        for (int k = end - 1; k >= 0 && entries.get(k).getDate().equals(entry.getDate()); k--) {
+            if (entries.get(k).equals(entry)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,254 @@
+package calendar;
+
+import holiday.Holiday;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Die Klasse DateClassifier klassifiziert große Mengen von Tagen (als Epoch Days) nach Wochentag, Wochenende,
+ * Feiertag, Arbeitstag und Brückentag, ohne für die einzelnen Tage Objekte zu erzeugen oder den HolidayManager abzufragen.
+ * Für die Jahre fromYear bis toYear wird dazu einmalig eine Tabelle mit der Klasse jedes Tages (ein Byte pro Tag)
+ * und je Merkmal eine Bitmenge (ein Bit pro Tag) berechnet.
+ *
+ * Beliebige Tage werden mit einem Zugriff auf die Tabelle je Tag klassifiziert.
+ * Zusammenhängende Zeiträume werden über die Bitmengen 64 Tage auf einmal klassifiziert.
+ * Ein Brückentag ist wie bei FourDayWeekend ein Arbeitstag, der ein Montag vor einem Feiertag
+ * oder ein Freitag nach einem Feiertag ist.
+ * Instanzen sind nach der Konstruktion unveränderlich und threadsicher.
+ */
+public final class DateClassifier {
+
+    //Aufbau einer Klasse: Wochentag (0 = Montag) in den unteren drei Bits, darüber die Merkmale
+    public static final int WEEKDAY_MASK = 7;
+    public static final int WEEKEND = 1 << 3;
+    public static final int HOLIDAY = 1 << 4;
+    //weder Wochenende noch Feiertag
+    public static final int WORKDAY = 1 << 5;
+    public static final int BRIDGE_DAY = 1 << 6;
+    private static final int FLAG_SHIFT = 3;
+    private static final int FLAG_COUNT = 4;
+
+    private final int fromYear;
+    private final int toYear;
+    private final long firstDay;
+    private final long endDay;
+    private final byte[] classes;
+    //bits[i] ist die Bitmenge des Merkmals 1 << (i + FLAG_SHIFT), Bit j gehört zum Tag firstDay + j
+    private final long[][] bits = new long[FLAG_COUNT][];
+
+    /**
+     * Erstellt eine Klassifikation, bei der die bundesweiten gesetzlichen Feiertage (siehe VacationOptimizer.PUBLIC_HOLIDAYS)
+     * als Feiertag gelten.
+     * @param manager liefert die Feiertage
+     * @param fromYear ist das erste abgedeckte Jahr
+     * @param toYear ist das letzte abgedeckte Jahr
+     */
+    public DateClassifier(HolidayManager manager, int fromYear, int toYear) {
+        this(manager, fromYear, toYear, VacationOptimizer::isDayOff);
+    }
+
+    /**
+     * @param manager liefert die Feiertage
+     * @param fromYear ist das erste abgedeckte Jahr
+     * @param toYear ist das letzte abgedeckte Jahr
+     * @param holidays entscheidet, welche Feiertage als Feiertag gelten
+     */
+    public DateClassifier(HolidayManager manager, int fromYear, int toYear, Predicate<Holiday> holidays) {
+        if (manager == null || holidays == null) {
+            throw new NullPointerException();
+        }
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("toYear war vor fromYear");
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        LocalDate first = LocalDate.of(fromYear, 1, 1);
+        LocalDate end = LocalDate.of(toYear + 1, 1, 1);
+        this.firstDay = first.toEpochDay();
+        this.endDay = end.toEpochDay();
+        int days = (int) (endDay - firstDay);
+
+        //Die Nachbartage des Bereichs werden für Brückentage am Rand mit abgefragt
+        boolean[] holiday = new boolean[days + 2];
+        for (CalendarEntry entry : manager.getBetween(first.minusDays(1), end)) {
+            if (holidays.test(entry.getHoliday())) {
+                holiday[(int) (entry.getDate().toEpochDay() - firstDay + 1)] = true;
+            }
+        }
+
+        classes = new byte[days];
+        for (int i = 0; i < FLAG_COUNT; i++) {
+            bits[i] = new long[(days + 63) >>> 6];
+        }
+        int weekday = first.getDayOfWeek().getValue() - 1;
+        for (int day = 0; day < days; day++, weekday = weekday == 6 ? 0 : weekday + 1) {
+            int value = weekday;
+            boolean weekend = weekday >= 5;
+            if (weekend) {
+                value |= WEEKEND;
+            }
+            if (holiday[day + 1]) {
+                value |= HOLIDAY;
+            }
+            if (!weekend && !holiday[day + 1]) {
+                value |= WORKDAY;
+                if (weekday == 0 && holiday[day + 2] || weekday == 4 && holiday[day]) {
+                    value |= BRIDGE_DAY;
+                }
+            }
+            classes[day] = (byte) value;
+            for (int i = 0; i < FLAG_COUNT; i++) {
+                if ((value & 1 << (i + FLAG_SHIFT)) != 0) {
+                    bits[i][day >>> 6] |= 1L << day;
+                }
+            }
+        }
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * @return wahr, falls der Tag in den abgedeckten Jahren liegt
+     */
+    public boolean covers(long epochDay) {
+        return epochDay >= firstDay && epochDay < endDay;
+    }
+
+    /**
+     * @param epochDay ist ein Tag in den abgedeckten Jahren
+     * @return Liefert die Klasse des Tages, Wochentag und Merkmale wie WEEKEND oder HOLIDAY.
+     */
+    public int classify(long epochDay) {
+        return classes[index(epochDay)];
+    }
+
+    /**
+     * Klassifiziert length Tage ab epochDays[from] und schreibt die Klassen ab classes[to].
+     */
+    public void classify(long[] epochDays, int from, byte[] classes, int to, int length) {
+        checkRange(epochDays.length, from, classes.length, to, length);
+        for (int i = 0; i < length; i++) {
+            classes[to + i] = this.classes[index(epochDays[from + i])];
+        }
+    }
+
+    /**
+     * Klassifiziert length Tage ab epochDays[from] und schreibt die Klassen ab classes[to].
+     */
+    public void classify(int[] epochDays, int from, byte[] classes, int to, int length) {
+        checkRange(epochDays.length, from, classes.length, to, length);
+        for (int i = 0; i < length; i++) {
+            classes[to + i] = this.classes[index(epochDays[from + i])];
+        }
+    }
+
+    /**
+     * Berechnet eine Bitmaske über length Tage ab epochDays[from]: Bit i (in mask[i / 64]) ist gesetzt,
+     * falls der Tag epochDays[from + i] eines der Merkmale in flags hat.
+     * @param flags ist eine Kombination aus WEEKEND, HOLIDAY, WORKDAY und BRIDGE_DAY
+     * @param mask nimmt die Bits auf, muss mindestens (length + 63) / 64 Elemente haben
+     */
+    public void mask(long[] epochDays, int from, int length, int flags, long[] mask) {
+        checkMask(epochDays.length, from, length, flags, mask);
+        for (int word = 0; word << 6 < length; word++) {
+            int offset = word << 6;
+            int count = Math.min(64, length - offset);
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                long hit = (classes[index(epochDays[from + offset + i])] & flags) != 0 ? 1L : 0L;
+                value |= hit << i;
+            }
+            mask[word] = value;
+        }
+    }
+
+    /**
+     * Wie mask(long[], ...) für Epoch Days als int.
+     */
+    public void mask(int[] epochDays, int from, int length, int flags, long[] mask) {
+        checkMask(epochDays.length, from, length, flags, mask);
+        for (int word = 0; word << 6 < length; word++) {
+            int offset = word << 6;
+            int count = Math.min(64, length - offset);
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                long hit = (classes[index(epochDays[from + offset + i])] & flags) != 0 ? 1L : 0L;
+                value |= hit << i;
+            }
+            mask[word] = value;
+        }
+    }
+
+    /**
+     * Berechnet eine Bitmaske über die days aufeinanderfolgenden Tage ab firstEpochDay, 64 Tage pro Schritt:
+     * Bit i (in mask[i / 64]) ist gesetzt, falls der Tag firstEpochDay + i eines der Merkmale in flags hat.
+     * @param flags ist eine Kombination aus WEEKEND, HOLIDAY, WORKDAY und BRIDGE_DAY
+     * @param mask nimmt die Bits auf, muss mindestens (days + 63) / 64 Elemente haben
+     */
+    public void maskRange(long firstEpochDay, int days, int flags, long[] mask) {
+        if (days < 0 || mask.length < (days + 63L) >>> 6) {
+            throw new IndexOutOfBoundsException("Maske zu kurz für " + days + " Tage");
+        }
+        if (days == 0) {
+            return;
+        }
+        index(firstEpochDay);
+        index(firstEpochDay + days - 1);
+        int start = (int) (firstEpochDay - firstDay);
+        int words = (days + 63) >>> 6;
+        Arrays.fill(mask, 0, words, 0L);
+        for (int flag = 0; flag < FLAG_COUNT; flag++) {
+            if ((flags & 1 << (flag + FLAG_SHIFT)) == 0) {
+                continue;
+            }
+            long[] source = bits[flag];
+            int first = start >>> 6;
+            int shift = start & 63;
+            for (int word = 0; word < words; word++) {
+                long low = source[first + word] >>> shift;
+                //shift 0 würde um 64 verschieben, was in Java keine Verschiebung ist
+                long high = shift == 0 || first + word + 1 >= source.length ? 0 : source[first + word + 1] << (64 - shift);
+                mask[word] |= low | high;
+            }
+        }
+        int rest = days & 63;
+        if (rest != 0) {
+            mask[words - 1] &= (1L << rest) - 1;
+        }
+    }
+
+    /**
+     * @return Liefert den Index eines Tages in der Tabelle, liegt er nicht in den abgedeckten Jahren,
+     * wird eine IllegalArgumentException geworfen.
+     */
+    private int index(long epochDay) {
+        if (epochDay < firstDay || epochDay >= endDay) {
+            throw new IllegalArgumentException(LocalDate.ofEpochDay(epochDay) + " liegt nicht in den Jahren " + fromYear + " bis " + toYear);
+        }
+        return (int) (epochDay - firstDay);
+    }
+
+    private static void checkRange(int sourceLength, int from, int targetLength, int to, int length) {
+        if (from < 0 || to < 0 || length < 0 || from > sourceLength - length || to > targetLength - length) {
+            throw new IndexOutOfBoundsException("Bereich außerhalb der Arrays: from " + from + ", to " + to + ", length " + length);
+        }
+    }
+
+    private static void checkMask(int sourceLength, int from, int length, int flags, long[] mask) {
+        checkRange(sourceLength, from, sourceLength, 0, length);
+        if (mask.length < (length + 63L) >>> 6) {
+            throw new IndexOutOfBoundsException("Maske zu kurz für " + length + " Tage");
+        }
+        if ((flags & ~(WEEKEND | HOLIDAY | WORKDAY | BRIDGE_DAY)) != 0) {
+            throw new IllegalArgumentException("unbekannte Merkmale: " + flags);
+        }
+    }
+}
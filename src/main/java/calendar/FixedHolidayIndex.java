@@ -0,0 +1,181 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.util.Arrays;
+
+/**
+ * Index der fixierten Feiertage eines HolidayManagers nach Monat und Tag.
+ * Für jeden der 366 möglichen Tage (der 29. Februar bleibt leer, siehe FixedHoliday) gibt es einen Eimer
+ * mit den Nummern der Feiertage an diesem Tag. Gespeichert werden nur int-Nummern, keine Objekte,
+ * und Abfragen berühren nur die Eimer der abgefragten Tage.
+ * Die Klasse ist nicht threadsicher.
+ */
+final class FixedHolidayIndex {
+
+    /**
+     * Empfänger der Termine eines Tages.
+     */
+    @FunctionalInterface
+    interface Occurrence {
+        void accept(int id, LocalDate date);
+    }
+
+    //Erster Eimer jedes Monats, gezählt wie in einem Schaltjahr
+    private static final int[] MONTH_START = {0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335};
+    private static final int[] EMPTY = new int[0];
+
+    private final int[][] buckets = new int[366][];
+    private final int[] sizes = new int[366];
+    private int size;
+    //aufsteigend sortierte belegte Eimer, für Abfragen über viele Jahre
+    private int[] occupied = new int[0];
+
+    FixedHolidayIndex() {
+        Arrays.fill(buckets, EMPTY);
+    }
+
+    /**
+     * Nimmt den Feiertag mit der angegebenen Nummer am angegebenen Tag auf.
+     */
+    void add(int id, MonthDay date) {
+        int slot = slot(date.getMonthValue(), date.getDayOfMonth());
+        int[] bucket = buckets[slot];
+        if (sizes[slot] == bucket.length) {
+            bucket = Arrays.copyOf(bucket, Math.max(4, bucket.length + (bucket.length >> 1)));
+            buckets[slot] = bucket;
+        }
+        bucket[sizes[slot]++] = id;
+        size++;
+        if (sizes[slot] == 1) {
+            int position = -Arrays.binarySearch(occupied, slot) - 1;
+            int[] slots = new int[occupied.length + 1];
+            System.arraycopy(occupied, 0, slots, 0, position);
+            slots[position] = slot;
+            System.arraycopy(occupied, position, slots, position + 1, occupied.length - position);
+            occupied = slots;
+        }
+    }
+
+    /**
+     * @return Liefert die Anzahl der aufgenommenen Feiertage.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Liefert die Anzahl der Tage im Jahr, an denen mindestens ein Feiertag liegt.
+     */
+    int occupiedDays() {
+        return occupied.length;
+    }
+
+    /**
+     * Liefert alle Termine im Bereich [from, to) Jahr für Jahr, wobei je Jahr nur die belegten Tage berührt werden.
+     * Über viele Jahre ist das deutlich günstiger als forEachBetween, die Termine sind aber nur je Jahr aufsteigend.
+     */
+    void forEachBetweenByYear(LocalDate from, LocalDate to, Occurrence occurrence) {
+        long first = from.toEpochDay();
+        long end = to.toEpochDay();
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            boolean leap = Year.isLeap(year);
+            for (int slot : occupied) {
+                int month = month(slot);
+                int day = slot - MONTH_START[month - 1] + 1;
+                if (!leap && month == 2 && day == 29) {
+                    continue;
+                }
+                LocalDate date = LocalDate.of(year, month, day);
+                long epochDay = date.toEpochDay();
+                if (epochDay >= first && epochDay < end) {
+                    int[] bucket = buckets[slot];
+                    for (int i = 0, count = sizes[slot]; i < count; i++) {
+                        occurrence.accept(bucket[i], date);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Liefert alle Termine im Bereich [from, to), Tag für Tag.
+     */
+    void forEachBetween(LocalDate from, LocalDate to, Occurrence occurrence) {
+        if (size == 0) {
+            return;
+        }
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            forEachOn(date, occurrence);
+        }
+    }
+
+    /**
+     * Liefert zu jedem Feiertag seinen nächsten Termin nach reference, also alle Termine im Bereich
+     * (reference, reference + 1 Jahr].
+     */
+    void forEachNext(LocalDate reference, Occurrence occurrence) {
+        if (size == 0) {
+            return;
+        }
+        LocalDate last = reference.plusYears(1);
+        for (LocalDate date = reference.plusDays(1); !date.isAfter(last); date = date.plusDays(1)) {
+            forEachOn(date, occurrence);
+        }
+    }
+
+    /**
+     * Liefert die Termine nach reference Tag für Tag, bis mindestens n Termine geliefert wurden.
+     * Der letzte Tag wird stets vollständig geliefert, damit bei gleichem Datum nach Namen sortiert werden kann.
+     */
+    void forEachNext(LocalDate reference, int n, Occurrence occurrence) {
+        if (size == 0) {
+            return;
+        }
+        int count = 0;
+        for (LocalDate date = reference.plusDays(1); count < n; date = date.plusDays(1)) {
+            count += forEachOn(date, occurrence);
+        }
+    }
+
+    /**
+     * Liefert zu jedem Feiertag seinen letzten Termin vor reference, also alle Termine im Bereich
+     * [reference - 1 Jahr, reference). Vom 29. Februar aus beginnt der Bereich am 1. März des Vorjahres,
+     * da der 28. Februar sonst zweimal darin läge.
+     */
+    void forEachPrevious(LocalDate reference, Occurrence occurrence) {
+        if (size == 0) {
+            return;
+        }
+        LocalDate first = reference.minusYears(1);
+        if (first.getDayOfMonth() != reference.getDayOfMonth()) {
+            first = first.plusDays(1);
+        }
+        for (LocalDate date = first; date.isBefore(reference); date = date.plusDays(1)) {
+            forEachOn(date, occurrence);
+        }
+    }
+
+    private int forEachOn(LocalDate date, Occurrence occurrence) {
+        int slot = slot(date.getMonthValue(), date.getDayOfMonth());
+        int[] bucket = buckets[slot];
+        int count = sizes[slot];
+        for (int i = 0; i < count; i++) {
+            occurrence.accept(bucket[i], date);
+        }
+        return count;
+    }
+
+    private static int month(int slot) {
+        int month = 12;
+        while (MONTH_START[month - 1] > slot) {
+            month--;
+        }
+        return month;
+    }
+
+    private static int slot(int month, int day) {
+        return MONTH_START[month - 1] + day - 1;
+    }
+}
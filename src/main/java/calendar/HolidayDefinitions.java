@@ -0,0 +1,187 @@
+package calendar;
+
+import holiday.DependentHoliday;
+import holiday.DiscordianHolidays;
+import holiday.FixedHoliday;
+import holiday.FloatingHoliday;
+import holiday.Generators;
+import holiday.Holiday;
+import holiday.MoonPhases;
+import holiday.ValidHoliday;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.time.MonthDay;
+import java.time.Period;
+import java.time.temporal.TemporalAdjuster;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Die Klasse HolidayDefinitions liest Feiertagsdefinitionen aus einer Textdatei.
+ * Jede Zeile beschreibt einen Feiertag, die Felder sind durch ";" getrennt.
+ * Leere Zeilen und Zeilen, die mit # beginnen, werden ignoriert.
+ *
+ * <pre>
+ * fixed;Christmas Day;12-25
+ * floating;Mother's Day;dayOfWeekInMonth MAY SUNDAY 2
+ * floating;Buß- und Bettag;dayOfWeekBeforeDate WEDNESDAY 11-23
+ * floating;Programmers' Day;dayOfYear 256
+ * floating;Easter Sunday;easterSunday
+ * floating;1. Advent;advent
+ * floating;Leap Day;february29
+ * dependent;Easter Monday;Easter Sunday;1
+ * discordian;MUNGDAY
+ * moon;FULL_MOON
+ * floating;Buß- und Bettag;dayOfWeekBeforeDate WEDNESDAY 11-23;years 1934-1994
+ * </pre>
+ * Der Anker eines abhängigen Feiertags muss in einer früheren Zeile definiert sein, die Verschiebung wird in Tagen angegeben.
+ * Ein optionales letztes Feld "years von-bis" beschränkt den Feiertag auf diese Jahre (siehe ValidHoliday),
+ * eine der beiden Grenzen darf fehlen, z.B. "years 1995-".
+ */
+public final class HolidayDefinitions {
+
+    private HolidayDefinitions() {
+    }
+
+    /**
+     * @param source ist die zu lesende Datei (UTF-8)
+     * @return Liefert die Definitionen der Datei in ihrer Reihenfolge, Schlüssel ist der Name des Feiertags.
+     * @throws IOException falls die Datei nicht gelesen werden kann
+     */
+    public static Map<String, String> read(Path source) throws IOException {
+        return parse(Files.readAllLines(source, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param lines sind die Zeilen einer Definitionsdatei
+     * @return Liefert die normalisierten Definitionen in ihrer Reihenfolge, Schlüssel ist der Name des Feiertags.
+     * Ist eine Zeile fehlerhaft oder ein Name doppelt vergeben, wird eine IllegalArgumentException geworfen.
+     */
+    public static Map<String, String> parse(List<String> lines) {
+        Map<String, String> definitions = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = split(line);
+            String name = nameOf(fields, i + 1);
+            if (definitions.put(name, String.join(";", fields)) != null) {
+                throw new IllegalArgumentException("Zeile " + (i + 1) + ": Feiertag \"" + name + "\" ist doppelt definiert");
+            }
+        }
+        return definitions;
+    }
+
+    /**
+     * Erstellt den Feiertag zu einer normalisierten Definition.
+     * @param definition ist eine von parse gelieferte Definition
+     * @param anchors liefert zu einem Namen den bereits erstellten Ankerfeiertag oder null
+     * @return Liefert den definierten Feiertag.
+     */
+    public static Holiday create(String definition, Function<String, Holiday> anchors) {
+        String[] fields = split(definition);
+        String last = fields[fields.length - 1];
+        if (fields.length > 2 && last.startsWith("years ")) {
+            Holiday holiday = create(Arrays.copyOf(fields, fields.length - 1), definition, anchors);
+            String[] years = last.substring("years ".length()).trim().split("-", -1);
+            if (years.length != 2) {
+                throw new IllegalArgumentException("ungültige Jahre \"" + last + "\"");
+            }
+            int fromYear = years[0].isEmpty() ? ValidHoliday.NO_START : Integer.parseInt(years[0].trim());
+            int toYear = years[1].isEmpty() ? ValidHoliday.NO_END : Integer.parseInt(years[1].trim());
+            return new ValidHoliday(holiday, fromYear, toYear);
+        }
+        return create(fields, definition, anchors);
+    }
+
+    private static Holiday create(String[] fields, String definition, Function<String, Holiday> anchors) {
+        try {
+            switch (fields[0]) {
+                case "fixed":
+                    return new FixedHoliday(fields[1], monthDay(fields[2]));
+                case "floating":
+                    return new FloatingHoliday(fields[1], adjuster(fields[2].split("\\s+")));
+                case "dependent":
+                    Holiday anchor = anchors.apply(fields[2]);
+                    if (anchor == null) {
+                        throw new IllegalArgumentException("unbekannter Anker \"" + fields[2] + "\"");
+                    }
+                    return new DependentHoliday(fields[1], anchor, Period.ofDays(Integer.parseInt(fields[3])));
+                case "discordian":
+                    return DiscordianHolidays.valueOf(fields[1]);
+                case "moon":
+                    return MoonPhases.valueOf(fields[1]);
+                default:
+                    throw new IllegalArgumentException("unbekannte Art \"" + fields[0] + "\"");
+            }
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("zu wenige Felder in \"" + definition + "\"");
+        }
+    }
+
+    /**
+     * @param definition ist eine von parse gelieferte Definition
+     * @return Liefert den Namen des Ankerfeiertags, falls die Definition einen abhängigen Feiertag beschreibt, sonst null.
+     */
+    public static String anchorOf(String definition) {
+        String[] fields = split(definition);
+        return fields[0].equals("dependent") && fields.length > 2 ? fields[2] : null;
+    }
+
+    private static String[] split(String line) {
+        String[] fields = line.split(";");
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        fields[0] = fields[0].toLowerCase(Locale.ROOT);
+        return fields;
+    }
+
+    private static String nameOf(String[] fields, int lineNumber) {
+        if (fields.length < 2 || fields[1].isEmpty()) {
+            throw new IllegalArgumentException("Zeile " + lineNumber + ": Name fehlt");
+        }
+        //Diskordianische Feiertage und Mondphasen werden über ihre Enum-Konstante benannt
+        switch (fields[0]) {
+            case "discordian":
+                return DiscordianHolidays.valueOf(fields[1]).getName();
+            case "moon":
+                return MoonPhases.valueOf(fields[1]).getName();
+            default:
+                return fields[1];
+        }
+    }
+
+    private static MonthDay monthDay(String text) {
+        return MonthDay.parse("--" + text);
+    }
+
+    private static TemporalAdjuster adjuster(String[] rule) {
+        switch (rule[0]) {
+            case "dayOfWeekInMonth":
+                return Generators.byDayOfWeekInMonth(Month.valueOf(rule[1]), DayOfWeek.valueOf(rule[2]), Integer.parseInt(rule[3]));
+            case "dayOfWeekBeforeDate":
+                return Generators.byDayOfWeekBeforeDate(DayOfWeek.valueOf(rule[1]), monthDay(rule[2]));
+            case "dayOfYear":
+                return Generators.byDayOfYear(Integer.parseInt(rule[1]));
+            case "easterSunday":
+                return Generators.easterSunday();
+            case "advent":
+                return Generators.advent();
+            case "february29":
+                return Generators.february29();
+            default:
+                throw new IllegalArgumentException("unbekannte Regel \"" + rule[0] + "\"");
+        }
+    }
+}
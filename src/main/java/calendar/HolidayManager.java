@@ -1,9 +1,20 @@
 package calendar;
 
+import holiday.CachedHoliday;
+import holiday.CompiledHolidaySet;
+import holiday.CycleTable;
+import holiday.Deadline;
+import holiday.DeadlineExceededException;
+import holiday.Fingerprint;
+import holiday.FixedHoliday;
+import holiday.GregorianCycle;
 import holiday.Holiday;
+import holiday.ValidHoliday;
+import jdk.jfr.FlightRecorder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.MonthDay;
 import java.time.YearMonth;
 import java.time.temporal.*;
 import java.util.*;
@@ -14,14 +25,47 @@ import java.util.*;
 public class HolidayManager {
 
 
-    private List<Holiday> holidays; // oder Collection<? extends Holiday> holidays
+    private final List<Holiday> holidays; // oder Collection<? extends Holiday> holidays
+
+    //Fixierte Feiertage liegen nur im Index, alle anderen werden über others[k] einzeln ausgewertet
+    private final FixedHolidayIndex fixedIndex = new FixedHolidayIndex();
+    private int[] others = new int[8];
+    private int otherCount;
+    //rules[k] ist der Feiertag others[k] ohne ValidHoliday. Er gilt ab dem Tag nach validOrigin[k] bis vor validEndDay[k],
+    //die Suche nach Terminen beginnt frühestens bei validOrigin[k]
+    private Holiday[] rules = new Holiday[8];
+    private long[] validOrigin = new long[8];
+    private long[] validEndDay = new long[8];
+    //Die Abfragen eines Zeitraums berücksichtigen nur die darin gültigen Feiertage others[k]
+    private final ValidityIndex validity = new ValidityIndex();
+    //periodic[k] ist wahr, falls sich der Feiertag others[k] alle 400 Jahre wiederholt (siehe GregorianCycle)
+    private boolean[] periodic = new boolean[8];
+    private CycleTable[] cycleTables = new CycleTable[8];
+    //Schätzungen des Kostenmodells (siehe QueryPlanner): Kosten eines Schritts, Termine je Tag, Kosten der Zyklustabelle
+    //und die bisher schrittweise ausgegebenen Kosten, die für die Berechnung der Zyklustabelle sprechen.
+    //Gleichzeitige Aktualisierungen von spent können verloren gehen, das verschiebt nur den Zeitpunkt der Berechnung.
+    private long[] stepCosts = new long[8];
+    private double[] rates = new double[8];
+    private long[] buildCosts = new long[8];
+    private long[] spent = new long[8];
+    //fingerprints[k] ist der Fingerabdruck von rules[k], unter dem geteilte Zyklustabellen nachgeschlagen werden
+    private long[] fingerprints = new long[8];
+    //compiled[k] ist der übersetzte Feiertag others[k] oder null, falls er nicht übersetzt werden kann
+    private CompiledHolidaySet[] compiled = new CompiledHolidaySet[8];
+    //optionale Nachfolgertabelle für getNext, siehe precomputeNext
+    private volatile SuccessorTable successors;
+    //Fingerabdruck aller Feiertage, wird bei der ersten Abfrage berechnet, siehe fingerprint()
+    private volatile Long fingerprint;
+    //optionales Abfrageprofil, siehe setQueryProfile
+    private volatile QueryProfile profile;
 
     private final Comparator<LocalDateTime> byHourDayMonth = Comparator.comparing(LocalDateTime::getMonth)
             .thenComparing(LocalDateTime::getDayOfMonth) //
             .thenComparing(LocalDateTime::getHour);
 
+    //bei gleichem Datum entspricht der Vergleich der Feiertage dem von CalendarEntry::toString, ohne zu formatieren
     private final Comparator<CalendarEntry> calendarEntry = Comparator.comparing(CalendarEntry::getDate) //
-            .thenComparing(CalendarEntry::toString); //
+            .thenComparing(entry -> entry.getHoliday().toString()); //
 
 
     /**
@@ -29,9 +73,182 @@ public class HolidayManager {
      * @param holidays ist die Menge von Feiertagen
      */
     public HolidayManager(Collection<? extends Holiday> holidays) {
-        if (!holidays.isEmpty()) {
-            this.holidays = new ArrayList<>(holidays);
+        this.holidays = new ArrayList<>(holidays.size());
+        for (Holiday holiday : holidays) {
+            register(holiday);
+        }
+    }
+
+    /**
+     * Fügt einen weiteren Feiertag hinzu. Fixierte Feiertage werden dabei nur in den Index ihres Tages aufgenommen,
+     * so dass auch Millionen von ihnen (z.B. Geburtstage) Abfragen eines Tages oder Monats nicht verlangsamen.
+     * Die Methode darf nicht gleichzeitig mit Abfragen aufgerufen werden.
+     * @param holiday ist der hinzuzufügende Feiertag
+     */
+    public void add(Holiday holiday) {
+        if (holiday == null) {
+            throw new NullPointerException();
+        }
+        register(holiday);
+        successors = null;
+        fingerprint = null;
+    }
+
+    /**
+     * Berechnet für die Jahre fromYear bis toYear die nächsten Termine aller Feiertage nach jedem Tag vor.
+     * getNext beantwortet Abfragen in diesen Jahren danach durch einen einzigen Durchlauf einer vorsortierten Folge,
+     * ohne Feiertage auszuwerten und ohne zu sortieren (siehe SuccessorTable).
+     * Die Methode darf gleichzeitig mit Abfragen aufgerufen werden, aber nicht gleichzeitig mit add,
+     * das die Tabelle wieder verwirft.
+     * @param fromYear ist das erste Jahr
+     * @param toYear ist das letzte Jahr
+     */
+    public void precomputeNext(int fromYear, int toYear) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("toYear war vor fromYear");
+        }
+        LocalDate first = LocalDate.of(fromYear, 1, 1);
+        LocalDate horizon = LocalDate.of(toYear, 12, 31).plusYears(1);
+        SuccessorTable.Builder builder = new SuccessorTable.Builder(holidays);
+        long[] previous = new long[holidays.size()];
+        Arrays.fill(previous, Long.MIN_VALUE);
+        fixedIndex.forEachBetween(first, horizon.plusDays(1), (id, date) -> {
+            builder.add(date.toEpochDay(), id, previous[id]);
+            previous[id] = date.toEpochDay();
+        });
+        for (int k = 0; k < otherCount; k++) {
+            long previousDay = Long.MIN_VALUE;
+            LocalDate date = next(k, first.minusDays(1));
+            //Termine bis zum Horizont und danach noch einer, der nach den letzten Tagen der Tabelle der nächste ist
+            while (date != null) {
+                builder.add(date.toEpochDay(), others[k], previousDay);
+                if (date.isAfter(horizon)) {
+                    break;
+                }
+                previousDay = date.toEpochDay();
+                date = next(k, date);
+            }
+        }
+        successors = builder.build(fromYear, toYear);
+    }
+
+    /**
+     * Beschreibt, wie getBetween(from, to) die Termine bestimmen würde, ohne sie zu berechnen (siehe QueryPlan).
+     * Die Abfrage wird dem Kostenmodell nicht angerechnet und berechnet keine Zyklustabelle.
+     * @param from ist das Startdatum (inklusive)
+     * @param to ist das Enddatum (inklusive)
+     * @return Liefert den Plan der Abfrage.
+     */
+    public QueryPlan explain(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new NullPointerException();
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        int years = to.getYear() - from.getYear() + 1;
+        int occupied = fixedIndex.occupiedDays();
+        QueryPlan.Strategy fixed = QueryPlanner.fixedStrategy(days, years, occupied);
+        QueryPlan plan = new QueryPlan(from, to, fixed, QueryPlanner.fixedCost(fixed, days, years, occupied));
+        validity.forEachActive(from.getYear(), to.getYear(), k -> {
+            long first = Math.max(from.toEpochDay(), validOrigin[k] + 1);
+            long end = Math.min(to.toEpochDay() + 1, validEndDay[k]);
+            if (first < end) {
+                int holidayYears = LocalDate.ofEpochDay(end - 1).getYear() - LocalDate.ofEpochDay(first).getYear() + 1;
+                QueryPlan.Strategy strategy = strategy(k, end - first, holidayYears, false);
+                plan.add(holidays.get(others[k]), strategy, cost(k, strategy, end - first, holidayYears));
+            }
+        });
+        return plan;
+    }
+
+    /**
+     * @return wahr, falls getNext eine Nachfolgertabelle verwendet (siehe precomputeNext)
+     */
+    public boolean hasSuccessorTable() {
+        return successors != null;
+    }
+
+    /**
+     * Zählt ab jetzt die abgefragten Jahre, Monate, Zeiträume und getNext-Jahre in profile,
+     * z.B. um einen neu gestarteten Manager mit QueryProfile.warmUp vorzuwärmen.
+     * @param profile ist das Profil oder null, um nicht mehr zu zählen
+     */
+    public void setQueryProfile(QueryProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * @return Liefert das Abfrageprofil oder null.
+     */
+    public QueryProfile getQueryProfile() {
+        return profile;
+    }
+
+    private void register(Holiday holiday) {
+        int id = holidays.size();
+        holidays.add(holiday);
+        MonthDay date = fixedDate(holiday);
+        if (date != null) {
+            fixedIndex.add(id, date);
+            return;
         }
+        //Die Gültigkeit wird hier ausgewertet, damit periodische Feiertage ihre Zyklustabelle behalten
+        Holiday rule = holiday;
+        int firstYear = ValidHoliday.NO_START;
+        int lastYear = ValidHoliday.NO_END;
+        while (rule instanceof ValidHoliday || rule instanceof CachedHoliday && ((CachedHoliday) rule).getHoliday() instanceof ValidHoliday) {
+            if (rule instanceof CachedHoliday) {
+                //Ein Zwischenspeicher um die Gültigkeit wird verworfen, die Termine der Regel bestimmt der Manager selbst
+                rule = ((CachedHoliday) rule).getHoliday();
+                continue;
+            }
+            ValidHoliday valid = (ValidHoliday) rule;
+            firstYear = Math.max(firstYear, valid.getFromYear());
+            lastYear = Math.min(lastYear, valid.getToYear());
+            rule = valid.getHoliday();
+        }
+        if (lastYear < firstYear) {
+            //in keinem Jahr gültig
+            return;
+        }
+        if (otherCount == others.length) {
+            others = Arrays.copyOf(others, otherCount * 2);
+            rules = Arrays.copyOf(rules, otherCount * 2);
+            validOrigin = Arrays.copyOf(validOrigin, otherCount * 2);
+            validEndDay = Arrays.copyOf(validEndDay, otherCount * 2);
+            periodic = Arrays.copyOf(periodic, otherCount * 2);
+            cycleTables = Arrays.copyOf(cycleTables, otherCount * 2);
+            stepCosts = Arrays.copyOf(stepCosts, otherCount * 2);
+            rates = Arrays.copyOf(rates, otherCount * 2);
+            buildCosts = Arrays.copyOf(buildCosts, otherCount * 2);
+            spent = Arrays.copyOf(spent, otherCount * 2);
+            compiled = Arrays.copyOf(compiled, otherCount * 2);
+            fingerprints = Arrays.copyOf(fingerprints, otherCount * 2);
+        }
+        others[otherCount] = id;
+        rules[otherCount] = rule;
+        validOrigin[otherCount] = firstYear == ValidHoliday.NO_START ? Long.MIN_VALUE : LocalDate.of(firstYear, 1, 1).toEpochDay() - 1;
+        validEndDay[otherCount] = lastYear == ValidHoliday.NO_END ? Long.MAX_VALUE : LocalDate.of(lastYear, 12, 31).toEpochDay() + 1;
+        periodic[otherCount] = GregorianCycle.isPeriodic(rule);
+        stepCosts[otherCount] = QueryPlanner.stepCost(rule);
+        rates[otherCount] = QueryPlanner.occurrencesPerDay(rule);
+        buildCosts[otherCount] = periodic[otherCount] ? QueryPlanner.buildCost(rule) : Long.MAX_VALUE;
+        compiled[otherCount] = QueryPlanner.compile(rule);
+        fingerprints[otherCount] = rule.fingerprint();
+        validity.add(otherCount, firstYear, lastYear);
+        otherCount++;
+    }
+
+    /**
+     * @return Liefert den Tag eines fixierten (ggf. zwischengespeicherten) Feiertags oder null.
+     */
+    private static MonthDay fixedDate(Holiday holiday) {
+        if (holiday instanceof CachedHoliday) {
+            holiday = ((CachedHoliday) holiday).getHoliday();
+        }
+        return holiday instanceof FixedHoliday ? ((FixedHoliday) holiday).getDate() : null;
     }
 
     /**
@@ -41,6 +258,37 @@ public class HolidayManager {
         return Collections.unmodifiableCollection(holidays);
     }
 
+    /**
+     * Liefert den Fingerabdruck der Definitionen aller Feiertage unabhängig von ihrer Reihenfolge (siehe Holiday.fingerprint()).
+     * Manager aus gleich definierten Feiertagen liefern in jedem Prozess denselben Wert, er eignet sich daher als
+     * Schlüssel für gespeicherte Ergebnisse, z.B. die Tabellen von PrecomputedTable.
+     * @return Liefert den Fingerabdruck oder Fingerprint.UNKNOWN, falls ein Feiertag unbekannt ist.
+     */
+    public long fingerprint() {
+        Long value = fingerprint;
+        if (value == null) {
+            value = fingerprint(holidays);
+            fingerprint = value;
+        }
+        return value;
+    }
+
+    static long fingerprint(List<Holiday> holidays) {
+        long[] fingerprints = new long[holidays.size()];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = holidays.get(i).fingerprint();
+            if (fingerprints[i] == Fingerprint.UNKNOWN) {
+                return Fingerprint.UNKNOWN;
+            }
+        }
+        Arrays.sort(fingerprints);
+        Fingerprint fingerprint = new Fingerprint("HolidayManager");
+        for (long value : fingerprints) {
+            fingerprint.add(value);
+        }
+        return fingerprint.value();
+    }
+
 
     /**
      * @param date ist das angegebene Datum
@@ -51,19 +299,10 @@ public class HolidayManager {
         if (date==null) {
             throw new NullPointerException();
         } else {
+            CalendarQueryEvent event = beginEvent();
             List<CalendarEntry> calendarEntries = new ArrayList<>();
-            LocalDate aDayBeforeDate = LocalDate.from(date).minus(1, ChronoUnit.DAYS);
-            for (Holiday holiday : holidays) {
-                LocalDate oneHoliday = aDayBeforeDate.with(holiday);
-                while (oneHoliday.isBefore(date.plus(1, ChronoUnit.DAYS))){
-                    if (oneHoliday.equals(date)) {
-                        calendarEntries.add(new CalendarEntry(oneHoliday, holiday));
-                    }
-                    oneHoliday= oneHoliday.with(holiday);
-                }
-            }
-            calendarEntries.sort(this.calendarEntry);
-            return calendarEntries;
+            collect(date, date.plus(1, ChronoUnit.DAYS), calendarEntries);
+            return record(event, "calendarSheet(LocalDate)", date, date, calendarEntries);
         }
     }
 
@@ -77,19 +316,14 @@ public class HolidayManager {
         if (month==null) {
             throw new NullPointerException();
         } else {
-            List<CalendarEntry> calendarEntries = new ArrayList<>();
-            LocalDate firstDayOfAMonthInAYear = LocalDate.of(month.getYear(), 12,31).minus(1, ChronoUnit.YEARS);
-            for (Holiday holiday : holidays) {
-                LocalDate oneHoliday = firstDayOfAMonthInAYear.with(holiday);
-                while (oneHoliday.isBefore(LocalDate.of(month.getYear(), month.getMonth(),1).plusMonths(1))){
-                    if (oneHoliday.getMonthValue()==month.getMonthValue()) {
-                        calendarEntries.add(new CalendarEntry(oneHoliday, holiday));
-                    }
-                    oneHoliday= oneHoliday.with(holiday);
-                }
+            CalendarQueryEvent event = beginEvent();
+            QueryProfile profile = this.profile;
+            if (profile != null) {
+                profile.recordMonth(month);
             }
-            calendarEntries.sort(this.calendarEntry);
-            return calendarEntries;
+            List<CalendarEntry> calendarEntries = new ArrayList<>();
+            collect(month.atDay(1), month.atDay(1).plusMonths(1), calendarEntries);
+            return record(event, "calendarSheet(YearMonth)", month.atDay(1), month.atEndOfMonth(), calendarEntries);
         }
     }
 
@@ -103,20 +337,15 @@ public class HolidayManager {
         if (year==0) {
             throw new IllegalArgumentException();
         } else {
+            CalendarQueryEvent event = beginEvent();
+            QueryProfile profile = this.profile;
+            if (profile != null) {
+                profile.recordYear(year);
+            }
             List<CalendarEntry> calendarEntries = new ArrayList<>();
-            LocalDate dayBeforeAYear = LocalDate.of(year, 1, 1).minus(1, ChronoUnit.DAYS);
             LocalDate dayAfterYear = LocalDate.of(year, 1, 1).plus(1, ChronoUnit.YEARS);
-            for (Holiday holiday : holidays) {
-                LocalDate oneHoliday = dayBeforeAYear.with(holiday);
-                while (oneHoliday.getYear()<dayAfterYear.getYear()){
-                    if (oneHoliday.getYear()==year) {
-                        calendarEntries.add(new CalendarEntry(oneHoliday, holiday));
-                    }
-                    oneHoliday= oneHoliday.with(holiday);
-                }
-            }
-            calendarEntries.sort(this.calendarEntry);
-            return calendarEntries;
+            collect(LocalDate.of(year, 1, 1), dayAfterYear, calendarEntries);
+            return record(event, "calendarSheet(int)", LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), calendarEntries);
         }
     }
 
@@ -136,21 +365,58 @@ public class HolidayManager {
             throw new IllegalArgumentException("to war vor from");
         }
         else {
+            CalendarQueryEvent event = beginEvent();
+            QueryProfile profile = this.profile;
+            if (profile != null) {
+                profile.recordRange(from, to);
+            }
             List<CalendarEntry> calendarEntries = new ArrayList<>();
-            LocalDate dayBeforeFrom = LocalDate.from(from).minus(1, ChronoUnit.DAYS);
-            for (Holiday holiday: holidays){
-                LocalDate oneHoliday = dayBeforeFrom.with(holiday);
-                while (oneHoliday.isBefore(to.plus(1, ChronoUnit.DAYS))){
-                    if ((oneHoliday.isAfter(from) || oneHoliday.equals(from))){
-                        calendarEntries.add(new CalendarEntry(oneHoliday, holiday));
-                    }
-                    oneHoliday= oneHoliday.with(holiday);
-                }
+            collect(from, to.plus(1, ChronoUnit.DAYS), calendarEntries);
+            return record(event, "getBetween", from, to, calendarEntries);
+        }
+    }
 
+    /**
+     * Wie getBetween(from, to), aber mit einer Frist (siehe Deadline). Der Zeitraum wird Jahr für Jahr gesammelt.
+     * Läuft die Frist ab, auch mitten in der Auswertung eines Feiertags, z.B. der Suche nach Brückentagen,
+     * endet die Abfrage mit den Terminen der bis dahin vollständig gesammelten Jahre.
+     * @param deadline ist die Frist
+     * @return Liefert die Termine zwischen from und to (beide inklusive), bei abgelaufener Frist die vor getCompleteBefore().
+     */
+    public PartialResult getBetween(LocalDate from, LocalDate to, Deadline deadline) {
+        if (from == null || to == null || deadline == null) {
+            throw new NullPointerException();
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        CalendarQueryEvent event = beginEvent();
+        QueryProfile profile = this.profile;
+        if (profile != null) {
+            profile.recordRange(from, to);
+        }
+        List<CalendarEntry> calendarEntries = new ArrayList<>();
+        LocalDate end = to.plusDays(1);
+        LocalDate start = from;
+        while (start.isBefore(end)) {
+            LocalDate yearStart = start;
+            LocalDate nextYear = LocalDate.of(start.getYear() + 1, 1, 1);
+            LocalDate yearEnd = nextYear.isBefore(end) ? nextYear : end;
+            List<CalendarEntry> year = new ArrayList<>();
+            try {
+                deadline.run(() -> {
+                    Deadline.check();
+                    collect(yearStart, yearEnd, year);
+                });
+            } catch (DeadlineExceededException ex) {
+                record(event, "getBetween(Deadline)", from, to, calendarEntries);
+                return new PartialResult(calendarEntries, false, start);
             }
-            calendarEntries.sort(this.calendarEntry);
-            return calendarEntries;
+            calendarEntries.addAll(year);
+            start = yearEnd;
         }
+        record(event, "getBetween(Deadline)", from, to, calendarEntries);
+        return new PartialResult(calendarEntries, true, end);
     }
 
     /**
@@ -162,15 +428,68 @@ public class HolidayManager {
         if (reference==null) {
             throw new NullPointerException();
         } else {
-            List<CalendarEntry> calendarEntries = new ArrayList<>();
-            for (Holiday holiday : holidays) {
-                LocalDate newHoliday = reference.with(holiday);
-                CalendarEntry calendarEntry = new CalendarEntry(newHoliday, holiday);
-                calendarEntries.add(calendarEntry);
+            CalendarQueryEvent event = beginEvent();
+            QueryProfile profile = this.profile;
+            if (profile != null) {
+                profile.recordNext(reference);
+            }
+            SuccessorTable table = successors;
+            if (table != null && table.covers(reference)) {
+                List<CalendarEntry> result = table.next(reference);
+                return record(event, "getNext(LocalDate)", reference, lastDate(result, reference), result);
             }
+            List<CalendarEntry> calendarEntries = new ArrayList<>();
+            fixedIndex.forEachNext(reference, (id, date) -> calendarEntries.add(new CalendarEntry(date, holidays.get(id))));
+            validity.forEachActive(reference.getYear(), ValidHoliday.NO_END, k -> {
+                LocalDate newHoliday = next(k, reference);
+                if (newHoliday != null) {
+                    calendarEntries.add(new CalendarEntry(newHoliday, holidays.get(others[k])));
+                }
+            });
             calendarEntries.sort(this.calendarEntry);
-            return calendarEntries;
+            return record(event, "getNext(LocalDate)", reference, lastDate(calendarEntries, reference), calendarEntries);
+        }
+    }
+
+    /**
+     * Wie getNext(reference), aber mit einer Frist (siehe Deadline). Läuft sie ab, fehlen die nächsten Termine der
+     * noch nicht ausgewerteten Feiertage, die fixierten Feiertage sind immer enthalten.
+     * @param deadline ist die Frist
+     * @return Liefert zu jedem Feiertag den nächsten Termin nach reference, bei abgelaufener Frist nur zu einem Teil.
+     */
+    public PartialResult getNext(LocalDate reference, Deadline deadline) {
+        if (reference == null || deadline == null) {
+            throw new NullPointerException();
+        }
+        CalendarQueryEvent event = beginEvent();
+        QueryProfile profile = this.profile;
+        if (profile != null) {
+            profile.recordNext(reference);
+        }
+        SuccessorTable table = successors;
+        if (table != null && table.covers(reference)) {
+            List<CalendarEntry> result = table.next(reference);
+            record(event, "getNext(Deadline)", reference, lastDate(result, reference), result);
+            return new PartialResult(result, true, lastDate(result, reference).plusDays(1));
+        }
+        List<CalendarEntry> calendarEntries = new ArrayList<>();
+        fixedIndex.forEachNext(reference, (id, date) -> calendarEntries.add(new CalendarEntry(date, holidays.get(id))));
+        boolean complete = true;
+        try {
+            deadline.run(() -> validity.forEachActive(reference.getYear(), ValidHoliday.NO_END, k -> {
+                Deadline.check();
+                LocalDate newHoliday = next(k, reference);
+                if (newHoliday != null) {
+                    calendarEntries.add(new CalendarEntry(newHoliday, holidays.get(others[k])));
+                }
+            }));
+        } catch (DeadlineExceededException ex) {
+            complete = false;
         }
+        calendarEntries.sort(this.calendarEntry);
+        record(event, "getNext(Deadline)", reference, lastDate(calendarEntries, reference), calendarEntries);
+        //ohne die fehlenden Feiertage ist nur sicher, dass vor dem Tag nach reference nichts fehlt
+        return new PartialResult(calendarEntries, complete, complete ? lastDate(calendarEntries, reference).plusDays(1) : reference.plusDays(1));
     }
 
     /**
@@ -189,20 +508,342 @@ public class HolidayManager {
         if (reference==null) {
             throw new NullPointerException();
         } else {
+            CalendarQueryEvent event = beginEvent();
+            QueryProfile profile = this.profile;
+            if (profile != null) {
+                profile.recordNext(reference);
+            }
+            SuccessorTable table = successors;
+            if (table != null && table.covers(reference)) {
+                List<CalendarEntry> result = table.next(reference, n);
+                if (result != null) {
+                    return record(event, "getNext(LocalDate, int)", reference, lastDate(result, reference), result);
+                }
+            }
             List<CalendarEntry> calendarEntries = new ArrayList<>();
-            LocalDate referenceToReference = LocalDate.from(reference);
-            for (Holiday holiday: holidays){
+            fixedIndex.forEachNext(reference, n, (id, date) -> calendarEntries.add(new CalendarEntry(date, holidays.get(id))));
+            validity.forEachActive(reference.getYear(), ValidHoliday.NO_END, k -> {
+                LocalDate referenceToReference = LocalDate.from(reference);
                 for (int i = 0; i<n ;i++){
-                    if (!calendarEntries.contains(new CalendarEntry(referenceToReference.with(holiday), holiday))){
-                        calendarEntries.add(new CalendarEntry(referenceToReference.with(holiday), holiday));
+                    referenceToReference = next(k, referenceToReference);
+                    if (referenceToReference == null) {
+                        break;
                     }
-                    referenceToReference= referenceToReference.with(holiday);
+                    calendarEntries.add(new CalendarEntry(referenceToReference, holidays.get(others[k])));
                 }
-                referenceToReference = LocalDate.from(reference);
-            }
+            });
             calendarEntries.sort(this.calendarEntry);
-            System.out.println("blub");
-            return new ArrayList<>(calendarEntries.subList(0,n));
+            List<CalendarEntry> result = new ArrayList<>(calendarEntries.subList(0,Math.min(n, calendarEntries.size())));
+            return record(event, "getNext(LocalDate, int)", reference, lastDate(result, reference), result);
+        }
+    }
+
+    /**
+     * @param reference ist das angegebene Datum
+     * @return Liefert zu jedem Feiertag im Manager den letzten Termin vor dem angegebenen Datum.
+     * Die Ausgabe ist aufsteigend sortiert nach Datum, bei gleichem Datum nach dem Namen des Feiertags.
+     */
+    public List<CalendarEntry> getPrevious(LocalDate reference) {
+        if (reference == null) {
+            throw new NullPointerException();
+        }
+        CalendarQueryEvent event = beginEvent();
+        List<CalendarEntry> calendarEntries = new ArrayList<>();
+        fixedIndex.forEachPrevious(reference, (id, date) -> calendarEntries.add(new CalendarEntry(date, holidays.get(id))));
+        validity.forEachActive(ValidHoliday.NO_START, reference.getYear(), k -> {
+            LocalDate previousHoliday = previous(k, reference);
+            if (previousHoliday != null) {
+                calendarEntries.add(new CalendarEntry(previousHoliday, holidays.get(others[k])));
+            }
+        });
+        calendarEntries.sort(this.calendarEntry);
+        LocalDate first = calendarEntries.isEmpty() ? reference : calendarEntries.get(0).getDate();
+        return record(event, "getPrevious", first, reference, calendarEntries);
+    }
+
+    /**
+     * Beantwortet viele voneinander unabhängige Abfragen auf einmal. Die Zeiträume der Abfragen werden sortiert und
+     * zu zusammenhängenden Zeiträumen vereinigt, deren Termine jeweils nur einmal gesammelt werden. Jede Abfrage
+     * erhält daraus ihren Ausschnitt, der Aufwand wächst also mit der Vereinigung der Zeiträume und nicht mit der
+     * Anzahl der Abfragen.
+     * @param queries sind die Abfragen
+     * @return Liefert die Ergebnisse in der Reihenfolge der Abfragen, jedes sortiert wie bei calendarSheet bzw. getBetween.
+     */
+    public List<List<CalendarEntry>> execute(List<HolidayQuery> queries) {
+        if (queries == null || queries.contains(null)) {
+            throw new NullPointerException();
+        }
+        CalendarQueryEvent event = beginEvent();
+        QueryProfile profile = this.profile;
+        if (profile != null) {
+            for (HolidayQuery query : queries) {
+                query.record(profile);
+            }
+        }
+        Integer[] order = new Integer[queries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> queries.get(i).getFrom()));
+        List<List<CalendarEntry>> results = new ArrayList<>(Collections.nCopies(order.length, null));
+        int resultSize = 0;
+        LocalDate end = null;
+        int i = 0;
+        while (i < order.length) {
+            //Vereinigung [from, end) der überlappenden oder aneinandergrenzenden Zeiträume ab order[i]
+            int first = i;
+            LocalDate from = queries.get(order[i]).getFrom();
+            end = from;
+            while (i < order.length && !queries.get(order[i]).getFrom().isAfter(end)) {
+                LocalDate to = queries.get(order[i]).getTo().plusDays(1);
+                if (to.isAfter(end)) {
+                    end = to;
+                }
+                i++;
+            }
+            List<CalendarEntry> calendarEntries = new ArrayList<>();
+            collect(from, end, calendarEntries);
+            for (int j = first; j < i; j++) {
+                HolidayQuery query = queries.get(order[j]);
+                List<CalendarEntry> slice = calendarEntries.subList(
+                        indexOf(calendarEntries, query.getFrom()), indexOf(calendarEntries, query.getTo().plusDays(1)));
+                results.set(order[j], new ArrayList<>(slice));
+                resultSize += slice.size();
+            }
+        }
+        if (event != null && end != null) {
+            record(event, "execute", queries.get(order[0]).getFrom(), end.minusDays(1), resultSize);
+        }
+        return results;
+    }
+
+    /**
+     * @return Liefert den Index des ersten Eintrags am oder nach date in den nach Datum sortierten calendarEntries.
+     */
+    private static int indexOf(List<CalendarEntry> calendarEntries, LocalDate date) {
+        int low = 0;
+        int high = calendarEntries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (calendarEntries.get(middle).getDate().isBefore(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sammelt alle Termine im Bereich [from, to) sortiert in calendarEntries.
+     * Von den nicht fixierten Feiertagen werden nur die im Zeitraum gültigen betrachtet (siehe ValidityIndex).
+     * Für die fixierten Feiertage und für jeden übrigen wählt das Kostenmodell den günstigsten Weg (siehe QueryPlanner).
+     */
+    private void collect(LocalDate from, LocalDate to, List<CalendarEntry> calendarEntries) {
+        long days = to.toEpochDay() - from.toEpochDay();
+        int years = to.minusDays(1).getYear() - from.getYear() + 1;
+        FixedHolidayIndex.Occurrence fixed = (id, date) -> calendarEntries.add(new CalendarEntry(date, holidays.get(id)));
+        if (QueryPlanner.fixedStrategy(days, years, fixedIndex.occupiedDays()) == QueryPlan.Strategy.INDEX_BY_YEAR) {
+            fixedIndex.forEachBetweenByYear(from, to, fixed);
+        } else {
+            fixedIndex.forEachBetween(from, to, fixed);
+        }
+        validity.forEachActive(from.getYear(), to.minusDays(1).getYear(), k -> collect(k, from, to, calendarEntries));
+        calendarEntries.sort(this.calendarEntry);
+    }
+
+    private void collect(int k, LocalDate from, LocalDate to, List<CalendarEntry> calendarEntries) {
+        Holiday holiday = holidays.get(others[k]);
+        Holiday rule = rules[k];
+        //Der Zeitraum wird auf die Gültigkeit beschränkt
+        long first = Math.max(from.toEpochDay(), validOrigin[k] + 1);
+        long end = Math.min(to.toEpochDay(), validEndDay[k]);
+        if (first >= end) {
+            return;
         }
+        int firstYear = LocalDate.ofEpochDay(first).getYear();
+        int lastYear = LocalDate.ofEpochDay(end - 1).getYear();
+        switch (strategy(k, end - first, lastYear - firstYear + 1, true)) {
+            case CYCLE_TABLE:
+                cycleTable(k).forEachBetween(first, end, day -> calendarEntries.add(new CalendarEntry(LocalDate.ofEpochDay(day), holiday)));
+                break;
+            case YEAR_FORMULA:
+                for (int year = firstYear; year <= lastYear; year++) {
+                    Deadline.check();
+                    compiled[k].forEachInYear(year, (index, day) -> {
+                        if (index == 0 && day >= first && day < end) {
+                            calendarEntries.add(new CalendarEntry(LocalDate.ofEpochDay(day), holiday));
+                        }
+                    });
+                }
+                break;
+            default:
+                LocalDate oneHoliday = rule.firstOnOrAfter(LocalDate.ofEpochDay(first));
+                while (oneHoliday != null && oneHoliday.toEpochDay() < end) {
+                    Deadline.check();
+                    if (oneHoliday.toEpochDay() >= first) {
+                        calendarEntries.add(new CalendarEntry(oneHoliday, holiday));
+                    }
+                    oneHoliday = oneHoliday.with(rule);
+                }
+        }
+    }
+
+    /**
+     * Wählt die günstigste Strategie für days Tage in years Jahren des Feiertags others[k].
+     * Die Zyklustabelle wird verwendet, wenn sie berechnet und günstiger ist, oder wenn die bisher ausgegebenen
+     * Kosten mit denen dieser Abfrage ihre Berechnung aufwiegen. Andernfalls werden die Kosten mit charge angerechnet.
+     */
+    private QueryPlan.Strategy strategy(int k, long days, int years, boolean charge) {
+        if (periodic[k] && cycleTables[k] == null) {
+            //von einem anderen Manager mit gleich definiertem Feiertag berechnet
+            cycleTables[k] = GregorianCycle.cached(fingerprints[k]);
+        }
+        long step = QueryPlanner.stepWindow(stepCosts[k], rates[k], days);
+        long formula = compiled[k] == null ? Long.MAX_VALUE : QueryPlanner.formulaWindow(rules[k], years);
+        QueryPlan.Strategy best = formula < step ? QueryPlan.Strategy.YEAR_FORMULA : QueryPlan.Strategy.STEP;
+        if (periodic[k]) {
+            long cost = Math.min(step, formula);
+            if (cycleTables[k] != null ? QueryPlanner.tableWindow(rates[k], days) < cost : rent(k, cost, charge)) {
+                return QueryPlan.Strategy.CYCLE_TABLE;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Liefert die geschätzten Kosten der Strategie, einschließlich einer noch zu berechnenden Zyklustabelle.
+     */
+    private long cost(int k, QueryPlan.Strategy strategy, long days, int years) {
+        switch (strategy) {
+            case CYCLE_TABLE:
+                return QueryPlanner.tableWindow(rates[k], days) + (cycleTables[k] == null ? buildCosts[k] : 0);
+            case YEAR_FORMULA:
+                return QueryPlanner.formulaWindow(rules[k], years);
+            default:
+                return QueryPlanner.stepWindow(stepCosts[k], rates[k], days);
+        }
+    }
+
+    /**
+     * Ski-Verleih: Die Zyklustabelle wird erst berechnet, wenn die bisherigen Kosten zusammen mit cost ihre Berechnung aufwiegen.
+     * @return wahr, falls die Zyklustabelle des Feiertags others[k] jetzt berechnet werden soll
+     */
+    private boolean rent(int k, long cost, boolean charge) {
+        if (spent[k] + cost >= buildCosts[k]) {
+            return true;
+        }
+        if (charge) {
+            spent[k] += cost;
+        }
+        return false;
+    }
+
+    /**
+     * @return Liefert den nächsten Termin des Feiertags others[k] nach date oder null, falls es keinen gibt.
+     */
+    private LocalDate next(int k, LocalDate date) {
+        long day = date.toEpochDay();
+        if (day >= validEndDay[k] - 1) {
+            return null;
+        }
+        if (day < validOrigin[k]) {
+            day = validOrigin[k];
+            date = LocalDate.ofEpochDay(day);
+        }
+        LocalDate next;
+        CycleTable table = cycleTables[k] != null || periodic[k] && (GregorianCycle.cached(fingerprints[k]) != null || rent(k, stepCosts[k], true))
+                ? cycleTable(k) : null;
+        if (table == null) {
+            next = date.with(rules[k]);
+        } else {
+            long nextDay = table.nextAfter(day);
+            next = nextDay == CycleTable.NONE ? null : LocalDate.ofEpochDay(nextDay);
+        }
+        return next == null || next.toEpochDay() >= validEndDay[k] ? null : next;
+    }
+
+    /**
+     * @return Liefert den letzten Termin des Feiertags others[k] vor date oder null, falls es keinen gibt.
+     */
+    private LocalDate previous(int k, LocalDate date) {
+        long day = date.toEpochDay();
+        if (day <= validOrigin[k] + 1) {
+            return null;
+        }
+        if (day > validEndDay[k]) {
+            day = validEndDay[k];
+            date = LocalDate.ofEpochDay(day);
+        }
+        LocalDate previous;
+        CycleTable table = cycleTables[k] != null || periodic[k] && (GregorianCycle.cached(fingerprints[k]) != null || rent(k, stepCosts[k], true))
+                ? cycleTable(k) : null;
+        if (table == null) {
+            previous = rules[k].previous(date);
+        } else {
+            long previousDay = table.previousBefore(day);
+            previous = previousDay == CycleTable.NONE ? null : LocalDate.ofEpochDay(previousDay);
+        }
+        return previous == null || previous.toEpochDay() <= validOrigin[k] ? null : previous;
+    }
+
+    /**
+     * Die Zyklustabellen periodischer Feiertage werden berechnet, sobald das Kostenmodell sie wählt.
+     * Gleichzeitige Berechnungen derselben Tabelle sind harmlos, da Tabellen unveränderlich sind.
+     * @return Liefert die Zyklustabelle des Feiertags others[k] oder null, falls er nicht periodisch ist.
+     */
+    private CycleTable cycleTable(int k) {
+        if (!periodic[k]) {
+            return null;
+        }
+        CycleTable table = cycleTables[k];
+        if (table == null) {
+            table = GregorianCycle.table(rules[k]);
+            cycleTables[k] = table;
+        }
+        return table;
+    }
+
+    /**
+     * Startet die Zeitmessung einer Abfrage.
+     * Solange der Flight Recorder nicht läuft, wird kein Event erzeugt, da bereits das Laden einer Event-Klasse
+     * den Flight Recorder initialisiert und damit den Programmstart um mehrere hundert Millisekunden verzögert.
+     * @return liefert das gestartete Event oder null
+     */
+    private static CalendarQueryEvent beginEvent() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        CalendarQueryEvent event = new CalendarQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Beendet die Zeitmessung einer Abfrage und schreibt das zugehörige JFR Event,
+     * falls es aktiviert ist und den Schwellwert überschreitet.
+     * @return liefert das übergebene Ergebnis unverändert zurück
+     */
+    private List<CalendarEntry> record(CalendarQueryEvent event, String query, LocalDate from, LocalDate to, List<CalendarEntry> result) {
+        if (event != null) {
+            record(event, query, from, to, result.size());
+        }
+        return result;
+    }
+
+    private void record(CalendarQueryEvent event, String query, LocalDate from, LocalDate to, int resultSize) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.query = query;
+            event.from = from.toString();
+            event.to = to.toString();
+            event.holidayCount = holidays.size();
+            event.resultSize = resultSize;
+            event.commit();
+        }
+    }
+
+    private static LocalDate lastDate(List<CalendarEntry> calendarEntries, LocalDate fallback) {
+        return calendarEntries.isEmpty() ? fallback : calendarEntries.get(calendarEntries.size() - 1).getDate();
     }
 }
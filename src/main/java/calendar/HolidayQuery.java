@@ -0,0 +1,118 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Eine Abfrage eines Zeitraums, die mit anderen zusammen an HolidayManager.execute übergeben wird,
+ * z.B. HolidayQuery.month(YearMonth.of(2024, 12)). Ihr Ergebnis entspricht dem von calendarSheet bzw. getBetween.
+ */
+public final class HolidayQuery {
+
+    private static final int DAY = 0;
+    private static final int MONTH = 1;
+    private static final int YEAR = 2;
+    private static final int RANGE = 3;
+
+    private final int type;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private HolidayQuery(int type, LocalDate from, LocalDate to) {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return Liefert die Abfrage wie calendarSheet(date).
+     */
+    public static HolidayQuery day(LocalDate date) {
+        if (date == null) {
+            throw new NullPointerException();
+        }
+        return new HolidayQuery(DAY, date, date);
+    }
+
+    /**
+     * @return Liefert die Abfrage wie calendarSheet(month).
+     */
+    public static HolidayQuery month(YearMonth month) {
+        if (month == null) {
+            throw new NullPointerException();
+        }
+        return new HolidayQuery(MONTH, month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * @return Liefert die Abfrage wie calendarSheet(year).
+     */
+    public static HolidayQuery year(int year) {
+        if (year == 0) {
+            throw new IllegalArgumentException();
+        }
+        return new HolidayQuery(YEAR, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    /**
+     * @return Liefert die Abfrage wie getBetween(from, to), beide Daten inklusive.
+     */
+    public static HolidayQuery between(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new NullPointerException();
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        return new HolidayQuery(RANGE, from, to);
+    }
+
+    /**
+     * @return Liefert den ersten Tag des Zeitraums.
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * @return Liefert den letzten Tag des Zeitraums (inklusive).
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Zählt die Abfrage im Profil wie die entsprechende Methode des Managers.
+     */
+    void record(QueryProfile profile) {
+        switch (type) {
+            case MONTH:
+                profile.recordMonth(YearMonth.from(from));
+                break;
+            case YEAR:
+                profile.recordYear(from.getYear());
+                break;
+            case RANGE:
+                profile.recordRange(from, to);
+                break;
+            default:
+        }
+    }
+
+    /**
+     * @return Liefert die Abfrage in der Schreibweise von BatchMain, z.B. "month 2024-12".
+     */
+    @Override
+    public String toString() {
+        switch (type) {
+            case DAY:
+                return "day " + from;
+            case MONTH:
+                return "month " + YearMonth.from(from);
+            case YEAR:
+                return "year " + from.getYear();
+            default:
+                return "range " + from + " " + to;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package calendar;
+
+import holiday.CachedHoliday;
+import holiday.Holiday;
+import holiday.ValidHoliday;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Die Klasse HolidayReloader hält einen HolidayManager, dessen Feiertage aus einer Definitionsdatei
+ * (siehe HolidayDefinitions) stammen, und lädt ihn bei Änderungen der Datei im Hintergrund neu.
+ * Unveränderte Feiertage werden samt ihres Zwischenspeichers (CachedHoliday) übernommen,
+ * nur geänderte Feiertage und von ihnen abhängige Feiertage werden neu erstellt und für die bereits
+ * zwischengespeicherten Jahre vorberechnet. Anschließend wird der neue Manager atomar ausgetauscht:
+ * Laufende Abfragen arbeiten mit dem Manager weiter, den sie über current() erhalten haben,
+ * und sehen daher entweder die alten oder die neuen Feiertage, aber nie eine Mischung.
+ */
+public final class HolidayReloader implements Closeable {
+
+    private final Path source;
+    private volatile Snapshot snapshot;
+    private volatile Exception lastFailure;
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * Lädt die Definitionsdatei einmalig, ohne sie zu beobachten (siehe start()).
+     * @param source ist die Definitionsdatei
+     * @throws IOException falls die Datei nicht gelesen werden kann
+     */
+    public HolidayReloader(Path source) throws IOException {
+        if (source == null) {
+            throw new NullPointerException();
+        }
+        this.source = source.toAbsolutePath();
+        this.snapshot = build(null, HolidayDefinitions.read(this.source));
+    }
+
+    /**
+     * @return Liefert den aktuell gültigen HolidayManager. Das Ergebnis ändert sich nie, ein Neuladen tauscht nur
+     * den Manager aus, den spätere Aufrufe liefern.
+     */
+    public HolidayManager current() {
+        return snapshot.manager;
+    }
+
+    /**
+     * @return Liefert die Anzahl der bisher erfolgreich geladenen Konfigurationen (beginnend bei 1).
+     */
+    public long getGeneration() {
+        return snapshot.generation;
+    }
+
+    /**
+     * @return Liefert den Fehler des letzten fehlgeschlagenen Neuladens oder null, falls das letzte Neuladen erfolgreich war.
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Beginnt mit der Beobachtung der Definitionsdatei in einem Hintergrund-Thread.
+     * @throws IOException falls das Verzeichnis der Datei nicht beobachtet werden kann
+     */
+    public synchronized void start() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        source.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watcher = new Thread(this::watch, "holiday-reloader-" + source.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Liest die Definitionsdatei neu ein und tauscht den Manager aus, falls sich Definitionen geändert haben.
+     * Schlägt das Einlesen fehl, bleibt der bisherige Manager gültig und der Fehler ist über getLastFailure() abrufbar.
+     * @return wahr, falls ein neuer Manager eingesetzt wurde
+     */
+    public synchronized boolean reload() {
+        try {
+            Map<String, String> definitions = HolidayDefinitions.read(source);
+            lastFailure = null;
+            if (definitions.equals(snapshot.definitions)) {
+                return false;
+            }
+            snapshot = build(snapshot, definitions);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            lastFailure = ex;
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watcher.interrupt();
+            watchService = null;
+            watcher = null;
+        }
+    }
+
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    changed |= context instanceof Path && source.getFileName().equals(context);
+                }
+                key.reset();
+                if (changed) {
+                    //Editoren schreiben Dateien oft in mehreren Schritten, daher kurz auf weitere Änderungen warten
+                    Thread.sleep(50);
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            //Beobachtung beendet
+        }
+    }
+
+    private static Snapshot build(Snapshot previous, Map<String, String> definitions) {
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, String> definition : definitions.entrySet()) {
+            String name = definition.getKey();
+            String anchor = HolidayDefinitions.anchorOf(definition.getValue());
+            //Die Definitionen sind so geordnet, dass Anker vor den von ihnen abhängigen Feiertagen stehen
+            if (previous == null || !definition.getValue().equals(previous.definitions.get(name))
+                    || (anchor != null && changed.contains(anchor))) {
+                changed.add(name);
+            }
+        }
+        SortedSet<Integer> cachedYears = previous == null ? Collections.emptySortedSet() : previous.cachedYears();
+        Map<String, Holiday> rules = new HashMap<>();
+        List<Holiday> holidays = new ArrayList<>(definitions.size());
+        for (Map.Entry<String, String> definition : definitions.entrySet()) {
+            String name = definition.getKey();
+            Holiday rule;
+            if (changed.contains(name)) {
+                rule = cached(HolidayDefinitions.create(definition.getValue(), rules::get));
+                prefill(rule, cachedYears);
+            } else {
+                rule = previous.rules.get(name);
+            }
+            rules.put(name, rule);
+            holidays.add(rule);
+        }
+        long generation = previous == null ? 1 : previous.generation + 1;
+        return new Snapshot(new HolidayManager(holidays), definitions, rules, generation);
+    }
+
+    /**
+     * Zwischengespeichert wird die Regel selbst, eine Gültigkeit bleibt außen, damit der HolidayManager sie
+     * auswerten kann (siehe ValidityIndex).
+     */
+    private static Holiday cached(Holiday holiday) {
+        if (holiday instanceof ValidHoliday) {
+            ValidHoliday valid = (ValidHoliday) holiday;
+            return new ValidHoliday(new CachedHoliday(valid.getHoliday()), valid.getFromYear(), valid.getToYear());
+        }
+        return new CachedHoliday(holiday);
+    }
+
+    /**
+     * Berechnet die Termine eines Feiertags in den angegebenen Jahren vor, so wie sie ein HolidayManager abfragt.
+     */
+    private static void prefill(Holiday rule, SortedSet<Integer> years) {
+        for (int year : years) {
+            LocalDate end = LocalDate.of(year + 1, 1, 1);
+            LocalDate occurrence = LocalDate.of(year - 1, 12, 31).with(rule);
+            while (occurrence != null && occurrence.isBefore(end)) {
+                occurrence = occurrence.with(rule);
+            }
+        }
+    }
+
+    /**
+     * Eine unveränderliche, vollständig aufgebaute Konfiguration.
+     */
+    private static final class Snapshot {
+
+        private final HolidayManager manager;
+        private final Map<String, String> definitions;
+        private final Map<String, Holiday> rules;
+        private final long generation;
+
+        private Snapshot(HolidayManager manager, Map<String, String> definitions, Map<String, Holiday> rules, long generation) {
+            this.manager = manager;
+            this.definitions = definitions;
+            this.rules = rules;
+            this.generation = generation;
+        }
+
+        private SortedSet<Integer> cachedYears() {
+            SortedSet<Integer> years = new TreeSet<>();
+            for (Holiday rule : rules.values()) {
+                Holiday cached = rule instanceof ValidHoliday ? ((ValidHoliday) rule).getHoliday() : rule;
+                years.addAll(((CachedHoliday) cached).getCachedYears());
+            }
+            return years;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Eine HolidaySet ist eine Menge von Kalendereinträgen, z.B. die eines HolidayManagers (siehe of()).
+ * Mengen lassen sich mit union, intersect und minus zu Ansichten verknüpfen, z.B. "Bundesfeiertage ohne Sonntage"
+ * oder "Sample A und Betriebsferien". Eine Ansicht kopiert keine Feiertage und berechnet nichts vorab,
+ * erst eine Abfrage wertet die beteiligten Mengen aus.
+ *
+ * Verknüpft wird auf Ebene der Tage: Der Schnitt enthält die Einträge beider Mengen an Tagen, an denen beide
+ * Mengen einen Eintrag haben, die Differenz die Einträge der ersten Menge an Tagen ohne Eintrag in der zweiten.
+ * Dafür liefert jede Menge je Jahr eine Bitmenge ihrer Tage, die Ansichten mit bitweisen Operationen verknüpfen.
+ * Alle Abfragen sind wie beim HolidayManager nach Datum, bei gleichem Datum nach dem Namen des Feiertags sortiert.
+ */
+public interface HolidaySet {
+
+    //Anzahl der long in der Bitmenge eines Jahres (366 Tage)
+    int YEAR_WORDS = 6;
+
+    /**
+     * @return Liefert alle Einträge von from bis to (beide inklusive) wie HolidayManager.getBetween.
+     */
+    List<CalendarEntry> getBetween(LocalDate from, LocalDate to);
+
+    /**
+     * @return Liefert die Tage des Jahres mit mindestens einem Eintrag als Bitmenge aus YEAR_WORDS long:
+     * Bit d - 1 (in word (d - 1) / 64) steht für den Tag d des Jahres. Das Array darf verändert werden.
+     */
+    long[] getDays(int year);
+
+    /**
+     * @return wahr, falls die Menge am angegebenen Tag mindestens einen Eintrag hat
+     */
+    default boolean contains(LocalDate date) {
+        int index = date.getDayOfYear() - 1;
+        return (getDays(date.getYear())[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Wie HolidayManager.calendarSheet(LocalDate).
+     */
+    default List<CalendarEntry> calendarSheet(LocalDate date) {
+        return getBetween(date, date);
+    }
+
+    /**
+     * Wie HolidayManager.calendarSheet(YearMonth).
+     */
+    default List<CalendarEntry> calendarSheet(YearMonth month) {
+        return getBetween(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Wie HolidayManager.calendarSheet(int).
+     */
+    default List<CalendarEntry> calendarSheet(int year) {
+        return getBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    /**
+     * @return Liefert eine Ansicht mit den Einträgen beider Mengen, ein Eintrag beider Mengen kommt nur einmal vor.
+     */
+    default HolidaySet union(HolidaySet other) {
+        return new CompositeHolidaySet(CompositeHolidaySet.Operation.UNION, this, other);
+    }
+
+    /**
+     * @return Liefert eine Ansicht mit den Einträgen beider Mengen an den Tagen, an denen beide Einträge haben.
+     */
+    default HolidaySet intersect(HolidaySet other) {
+        return new CompositeHolidaySet(CompositeHolidaySet.Operation.INTERSECTION, this, other);
+    }
+
+    /**
+     * @return Liefert eine Ansicht mit den Einträgen dieser Menge an den Tagen, an denen other keinen Eintrag hat.
+     */
+    default HolidaySet minus(HolidaySet other) {
+        return new CompositeHolidaySet(CompositeHolidaySet.Operation.DIFFERENCE, this, other);
+    }
+
+    /**
+     * @return Liefert die Menge der Einträge des Managers. Sie folgt später hinzugefügten Feiertagen.
+     */
+    static HolidaySet of(HolidayManager manager) {
+        return new ManagerHolidaySet(manager);
+    }
+}
@@ -96,6 +96,23 @@ public final class HolidayStock {
         return res;
     }
 
+    /**
+     * @param name ist der Name eines Samples (A, B oder C, Groß- und Kleinschreibung egal)
+     * @return Liefert die Feiertage des Samples. Ist der Name unbekannt, wird eine IllegalArgumentException geworfen.
+     */
+    public static List<Holiday> sample(String name) {
+        switch (name.toUpperCase()) {
+            case "A":
+                return sampleA();
+            case "B":
+                return sampleB();
+            case "C":
+                return sampleC();
+            default:
+                throw new IllegalArgumentException("unbekanntes Sample: " + name);
+        }
+    }
+
     // +---------------------------+
     // | private factory methods   |
     // +---------------------------+
@@ -0,0 +1,619 @@
+package calendar;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Last- und Dauertest für geteilte HolidayManager, ohne JavaFX und ohne Netzwerk.
+ * Mehrere Threads stellen mit fester Gesamtrate eine gewichtete Mischung von Abfragen an die Manager der
+ * angegebenen Samples. Jeder Thread hat einen festen Zeitplan, die Latenz einer Abfrage wird ab ihrem geplanten
+ * Start gemessen und nicht ab dem tatsächlichen. Staut sich die Last, gehen die Wartezeiten also in die Latenzen
+ * ein, statt wie bei einer geschlossenen Schleife unterschlagen zu werden (Coordinated Omission).
+ *
+ * <pre>
+ * java -cp HolidaysCalendar.jar calendar.LoadHarness [optionen]
+ *
+ * --sample A,B,C     Samples, deren Manager abgefragt werden (Standard A)
+ * --threads n        Anzahl der Lastthreads (Standard: Anzahl der Prozessoren)
+ * --rate n           Abfragen pro Sekunde über alle Threads (Standard 1000)
+ * --warmup s         Aufwärmzeit in Sekunden, wird nicht gemessen (Standard 10)
+ * --duration s       Messzeit in Sekunden (Standard 60)
+ * --interval s       Abstand der Zwischenberichte in Sekunden (Standard 10)
+ * --mix day=30,...   Gewichte der Abfragen day, month, year, range, next und next-n
+ * --years 1900-2100  Jahre, aus denen die Abfragen gewählt werden
+ * --seed n           Startwert der Zufallszahlen, gleiche Werte ergeben die gleichen Abfragen
+ * </pre>
+ * Berichtet werden je Intervall und am Ende die Perzentile p50, p99, p99.9 und das Maximum der Latenz,
+ * die allokierten Bytes pro Sekunde der Lastthreads sowie Anzahl, Summe und Maximum der GC-Pausen.
+ */
+public final class LoadHarness {
+
+    private static final String[] QUERIES = {"day", "month", "year", "range", "next", "next-n"};
+    private static final int DAY = 0;
+    private static final int MONTH = 1;
+    private static final int YEAR = 2;
+    private static final int RANGE = 3;
+    private static final int NEXT = 4;
+    private static final int NEXT_N = 5;
+    private static final int[] DEFAULT_MIX = {30, 25, 5, 20, 15, 5};
+    //Länge der Zeiträume von range und Anzahl der Termine von next-n
+    private static final int MAX_RANGE_DAYS = 90;
+    private static final int NEXT_N_COUNT = 10;
+
+    private final HolidayManager[] managers;
+    private final int[] cumulativeMix;
+    private final int fromYear;
+    private final int toYear;
+    private final Worker[] workers;
+    private final GcMonitor gc = new GcMonitor();
+
+    private LoadHarness(HolidayManager[] managers, int[] mix, int fromYear, int toYear, int threads, long seed) {
+        this.managers = managers;
+        this.cumulativeMix = new int[mix.length];
+        int sum = 0;
+        for (int i = 0; i < mix.length; i++) {
+            sum += mix[i];
+            cumulativeMix[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("die Summe der Gewichte muss positiv sein");
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(new SplittableRandom(seed + i));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String samples = "A";
+        int threads = Runtime.getRuntime().availableProcessors();
+        double rate = 1000;
+        int warmup = 10;
+        int duration = 60;
+        int interval = 10;
+        int[] mix = DEFAULT_MIX.clone();
+        int fromYear = 1900;
+        int toYear = 2100;
+        long seed = 42;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("fehlender Wert für " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--sample":
+                        samples = value;
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--rate":
+                        rate = Double.parseDouble(value);
+                        break;
+                    case "--warmup":
+                        warmup = Integer.parseInt(value);
+                        break;
+                    case "--duration":
+                        duration = Integer.parseInt(value);
+                        break;
+                    case "--interval":
+                        interval = Integer.parseInt(value);
+                        break;
+                    case "--mix":
+                        mix = parseMix(value);
+                        break;
+                    case "--years": {
+                        String[] years = value.split("-", 2);
+                        fromYear = Integer.parseInt(years[0]);
+                        toYear = Integer.parseInt(years[1]);
+                        break;
+                    }
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unbekannte Option: " + args[i]);
+                }
+            }
+            if (threads <= 0 || rate <= 0 || warmup < 0 || duration <= 0 || interval <= 0 || toYear < fromYear) {
+                throw new IllegalArgumentException("ungültige Parameter");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            System.err.println("Fehler: " + ex.getMessage());
+            usage();
+            System.exit(2);
+            return;
+        }
+        String[] names = samples.split(",");
+        HolidayManager[] managers = new HolidayManager[names.length];
+        for (int i = 0; i < names.length; i++) {
+            managers[i] = new HolidayManager(HolidayStock.sample(names[i].trim()));
+        }
+        System.out.printf(Locale.ROOT, "Samples %s, %d Threads, %.0f Abfragen/s, Aufwärmen %d s, Messung %d s, Jahre %d-%d, %s %s%n",
+                samples, threads, rate, warmup, duration, fromYear, toYear,
+                System.getProperty("java.vm.name"), System.getProperty("java.vm.version"));
+        new LoadHarness(managers, mix, fromYear, toYear, threads, seed).run(rate, warmup, duration, interval);
+    }
+
+    private static void usage() {
+        System.err.println("Aufruf: calendar.LoadHarness [--sample A,B,C] [--threads n] [--rate n] [--warmup s] [--duration s] "
+                + "[--interval s] [--mix day=30,month=25,year=5,range=20,next=15,next-n=5] [--years von-bis] [--seed n]");
+    }
+
+    private static int[] parseMix(String value) {
+        int[] mix = new int[QUERIES.length];
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=", 2);
+            int query = indexOf(weight[0].trim());
+            mix[query] = Integer.parseInt(weight[1].trim());
+            if (mix[query] < 0) {
+                throw new IllegalArgumentException("negatives Gewicht: " + part);
+            }
+        }
+        return mix;
+    }
+
+    private static int indexOf(String query) {
+        for (int i = 0; i < QUERIES.length; i++) {
+            if (QUERIES[i].equals(query)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unbekannte Abfrage: " + query);
+    }
+
+    private void run(double rate, int warmup, int duration, int interval) throws InterruptedException {
+        //Jeder Thread trägt rate / threads bei, die Zeitpläne sind gleichmäßig gegeneinander versetzt
+        long period = Math.max(1, Math.round(workers.length * 1e9 / rate));
+        long start = System.nanoTime() + 100_000_000L;
+        long measureStart = start + warmup * 1_000_000_000L;
+        long end = measureStart + duration * 1_000_000_000L;
+        Thread[] threads = new Thread[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            Worker worker = workers[i];
+            long offset = period * i / workers.length;
+            threads[i] = new Thread(() -> worker.run(start + offset, period, measureStart, end), "load-" + i);
+            threads[i].setDaemon(true);
+        }
+        Allocation allocation = new Allocation(threads, workers);
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        gc.install();
+        try {
+            sleepUntil(measureStart);
+            gc.reset();
+            long[] previous = counts(-1);
+            long previousBytes = allocation.bytes();
+            long totalBytesStart = previousBytes;
+            long previousTime = System.nanoTime();
+            for (long next = measureStart + interval * 1_000_000_000L; previousTime < end; next += interval * 1_000_000_000L) {
+                sleepUntil(Math.min(next, end));
+                if (next >= end) {
+                    //Die letzten Abfragen laufen noch, der Abschlussbericht soll sie enthalten
+                    for (Thread thread : threads) {
+                        thread.join();
+                    }
+                }
+                long now = System.nanoTime();
+                long[] current = counts(-1);
+                long bytes = allocation.bytes();
+                double seconds = (now - previousTime) / 1e9;
+                System.out.printf(Locale.ROOT, "%6.0f s  %s  %s  %s%n", (now - measureStart) / 1e9,
+                        Histogram.describe(Histogram.difference(current, previous), seconds),
+                        allocationRate(bytes - previousBytes, seconds), gc.describeInterval());
+                previous = current;
+                previousBytes = bytes;
+                previousTime = now;
+            }
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+            long bytes = allocation.bytes() - totalBytesStart;
+            System.out.println();
+            System.out.println("Gesamt");
+            for (int query = 0; query < QUERIES.length; query++) {
+                long[] counts = counts(query);
+                if (Histogram.total(counts) > 0) {
+                    System.out.printf(Locale.ROOT, "%-8s %s  max %s  Fehler %d%n", QUERIES[query],
+                            Histogram.describe(counts, seconds), micros(maximum(query)), failures(query));
+                }
+            }
+            System.out.printf(Locale.ROOT, "%-8s %s  max %s%n", "alle", Histogram.describe(counts(-1), seconds), micros(maximum(-1)));
+            System.out.printf(Locale.ROOT, "%s  %s  max. Startverzögerung %s%n", allocationRate(bytes, seconds),
+                    gc.describeTotal(), micros(maximumLag()));
+            long results = 0;
+            for (Worker worker : workers) {
+                results += worker.results;
+            }
+            System.out.println("gelieferte Termine: " + results);
+            for (Worker worker : workers) {
+                if (worker.firstFailure != null) {
+                    System.out.println("erster Fehler:");
+                    worker.firstFailure.printStackTrace(System.out);
+                    break;
+                }
+            }
+        } finally {
+            gc.uninstall();
+        }
+    }
+
+    /**
+     * @return Liefert die summierten Zähler aller Threads für eine Abfrage bzw. für alle Abfragen (query = -1).
+     */
+    private long[] counts(int query) {
+        long[] counts = new long[Histogram.BUCKETS];
+        for (Worker worker : workers) {
+            for (int q = 0; q < QUERIES.length; q++) {
+                if (query < 0 || query == q) {
+                    worker.histograms[q].addTo(counts);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private long maximum(int query) {
+        long maximum = 0;
+        for (Worker worker : workers) {
+            for (int q = 0; q < QUERIES.length; q++) {
+                if (query < 0 || query == q) {
+                    maximum = Math.max(maximum, worker.histograms[q].maximum.get());
+                }
+            }
+        }
+        return maximum;
+    }
+
+    private long failures(int query) {
+        long failures = 0;
+        for (Worker worker : workers) {
+            failures += worker.failures[query].get();
+        }
+        return failures;
+    }
+
+    private long maximumLag() {
+        long maximum = 0;
+        for (Worker worker : workers) {
+            maximum = Math.max(maximum, worker.maximumLag);
+        }
+        return maximum;
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            Thread.sleep(Math.max(1, remaining / 1_000_000));
+        }
+    }
+
+    private static String allocationRate(long bytes, double seconds) {
+        if (bytes < 0) {
+            return "Allokation n/a";
+        }
+        return String.format(Locale.ROOT, "Allokation %.1f MB/s", bytes / seconds / (1 << 20));
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f us", nanos / 1000.0);
+    }
+
+    /**
+     * Ein Lastthread mit eigenem Zeitplan, eigenen Zufallszahlen und eigenen Histogrammen je Abfrage.
+     */
+    private final class Worker {
+
+        private final SplittableRandom random;
+        private final Histogram[] histograms = new Histogram[QUERIES.length];
+        private final AtomicLong[] failures = new AtomicLong[QUERIES.length];
+        private volatile RuntimeException firstFailure;
+        //Verhindert, dass der JIT-Compiler die Abfragen als wirkungslos entfernt
+        private volatile long results;
+        private volatile long maximumLag;
+        private volatile long allocatedAtExit = -1;
+
+        private Worker(SplittableRandom random) {
+            this.random = random;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram();
+                failures[i] = new AtomicLong();
+            }
+        }
+
+        private void run(long first, long period, long measureStart, long end) {
+            long count = 0;
+            long lag = 0;
+            for (long intended = first; intended < end; intended += period) {
+                long now = System.nanoTime();
+                while (now < intended) {
+                    LockSupport.parkNanos(intended - now);
+                    now = System.nanoTime();
+                }
+                int query = nextQuery();
+                boolean failed = false;
+                try {
+                    count += execute(query);
+                } catch (RuntimeException ex) {
+                    failed = true;
+                    if (firstFailure == null) {
+                        firstFailure = ex;
+                    }
+                }
+                long finished = System.nanoTime();
+                if (intended >= measureStart) {
+                    if (failed) {
+                        failures[query].incrementAndGet();
+                    }
+                    histograms[query].record(finished - intended);
+                    lag = Math.max(lag, now - intended);
+                }
+            }
+            results = count;
+            maximumLag = lag;
+            allocatedAtExit = Allocation.currentThread();
+        }
+
+        private int nextQuery() {
+            int value = random.nextInt(cumulativeMix[cumulativeMix.length - 1]);
+            int query = 0;
+            while (value >= cumulativeMix[query]) {
+                query++;
+            }
+            return query;
+        }
+
+        private int execute(int query) {
+            HolidayManager manager = managers[random.nextInt(managers.length)];
+            int year = fromYear + random.nextInt(toYear - fromYear + 1);
+            switch (query) {
+                case DAY:
+                    return manager.calendarSheet(LocalDate.ofYearDay(year, 1 + random.nextInt(365))).size();
+                case MONTH:
+                    return manager.calendarSheet(YearMonth.of(year, 1 + random.nextInt(12))).size();
+                case YEAR:
+                    return manager.calendarSheet(year).size();
+                case RANGE: {
+                    LocalDate from = LocalDate.ofYearDay(year, 1 + random.nextInt(365));
+                    return manager.getBetween(from, from.plusDays(random.nextInt(MAX_RANGE_DAYS))).size();
+                }
+                case NEXT:
+                    return manager.getNext(LocalDate.ofYearDay(year, 1 + random.nextInt(365))).size();
+                case NEXT_N:
+                    return manager.getNext(LocalDate.ofYearDay(year, 1 + random.nextInt(365)), NEXT_N_COUNT).size();
+                default:
+                    throw new IllegalStateException("unbekannte Abfrage " + query);
+            }
+        }
+    }
+
+    /**
+     * Histogramm der Latenzen in Nanosekunden mit logarithmisch-linearen Eimern (relative Auflösung unter 1,6 %).
+     * Werte unter 128 haben je einen eigenen Eimer, darüber teilen sich jede Zweierpotenz 64 Eimer.
+     * Es wird von einem Thread geschrieben und kann jederzeit von anderen gelesen werden.
+     */
+    private static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 7;
+        private static final int HALF = 1 << (SUB_BUCKET_BITS - 1);
+        static final int BUCKETS = (64 - SUB_BUCKET_BITS + 2) * HALF;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong maximum = new AtomicLong();
+
+        private void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(index(value));
+            if (value > maximum.get()) {
+                maximum.set(value);
+            }
+        }
+
+        private void addTo(long[] target) {
+            for (int i = 0; i < BUCKETS; i++) {
+                target[i] += counts.get(i);
+            }
+        }
+
+        static int index(long value) {
+            if (value < 2 * HALF) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+            return shift * HALF + (int) (value >>> shift);
+        }
+
+        /**
+         * @return Liefert den größten Wert, der im Eimer index gezählt wird.
+         */
+        static long highest(int index) {
+            if (index < 2 * HALF) {
+                return index;
+            }
+            int shift = index / HALF - 1;
+            long mantissa = index - shift * HALF;
+            return ((mantissa + 1) << shift) - 1;
+        }
+
+        static long[] difference(long[] current, long[] previous) {
+            long[] difference = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                difference[i] = current[i] - previous[i];
+            }
+            return difference;
+        }
+
+        static long total(long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        static long percentile(long[] counts, long total, double percentile) {
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highest(i);
+                }
+            }
+            return 0;
+        }
+
+        static String describe(long[] counts, double seconds) {
+            long total = total(counts);
+            if (total == 0) {
+                return "keine Abfragen";
+            }
+            return String.format(Locale.ROOT, "%9d Abfragen (%.0f/s)  p50 %s  p99 %s  p99.9 %s  p100 %s", total, total / seconds,
+                    micros(percentile(counts, total, 50)), micros(percentile(counts, total, 99)),
+                    micros(percentile(counts, total, 99.9)), micros(percentile(counts, total, 100)));
+        }
+    }
+
+    /**
+     * Summe der allokierten Bytes der Lastthreads, soweit die JVM dies unterstützt.
+     */
+    private static final class Allocation {
+
+        private static final com.sun.management.ThreadMXBean BEAN = bean();
+
+        private final long[] ids;
+        private final Worker[] workers;
+
+        private Allocation(Thread[] threads, Worker[] workers) {
+            this.workers = workers;
+            ids = new long[threads.length];
+            for (int i = 0; i < threads.length; i++) {
+                ids[i] = threads[i].getId();
+            }
+        }
+
+        private static com.sun.management.ThreadMXBean bean() {
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            if (threadBean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+            return null;
+        }
+
+        /**
+         * @return Liefert die bisher vom aktuellen Thread allokierten Bytes, bzw. -1 falls nicht unterstützt.
+         */
+        private static long currentThread() {
+            return BEAN == null ? -1 : BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        /**
+         * @return Liefert die bisher allokierten Bytes, bzw. -1 falls nicht unterstützt.
+         */
+        private long bytes() {
+            if (BEAN == null) {
+                return -1;
+            }
+            long[] current = BEAN.getThreadAllocatedBytes(ids);
+            long sum = 0;
+            for (int i = 0; i < ids.length; i++) {
+                //beendete Threads liefern -1, dann gilt ihr Stand beim Beenden
+                sum += Math.max(0, Math.max(current[i], workers[i].allocatedAtExit));
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Zählt GC-Pausen über die Benachrichtigungen der GarbageCollectorMXBeans.
+     * Nebenläufige Zyklen (z.B. "ZGC Cycles" oder "Shenandoah Cycles") sind keine Pausen und werden ausgelassen.
+     */
+    private static final class GcMonitor implements NotificationListener {
+
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maximumMillis = new AtomicLong();
+        private final AtomicLong intervalCount = new AtomicLong();
+        private final AtomicLong intervalMillis = new AtomicLong();
+        private final AtomicLong intervalMaximum = new AtomicLong();
+
+        private void install() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean instanceof NotificationEmitter && !bean.getName().endsWith("Cycles")) {
+                    ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+                    emitters.add((NotificationEmitter) bean);
+                }
+            }
+        }
+
+        private void uninstall() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException ex) {
+                    //bereits entfernt
+                }
+            }
+            emitters.clear();
+        }
+
+        private void reset() {
+            count.set(0);
+            totalMillis.set(0);
+            maximumMillis.set(0);
+            intervalCount.set(0);
+            intervalMillis.set(0);
+            intervalMaximum.set(0);
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long millis = info.getGcInfo().getDuration();
+            count.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            maximumMillis.accumulateAndGet(millis, Math::max);
+            intervalCount.incrementAndGet();
+            intervalMillis.addAndGet(millis);
+            intervalMaximum.accumulateAndGet(millis, Math::max);
+        }
+
+        private String describeInterval() {
+            return describe(intervalCount.getAndSet(0), intervalMillis.getAndSet(0), intervalMaximum.getAndSet(0));
+        }
+
+        private String describeTotal() {
+            return describe(count.get(), totalMillis.get(), maximumMillis.get());
+        }
+
+        private static String describe(long count, long millis, long maximum) {
+            return String.format(Locale.ROOT, "GC %d Pausen, %d ms, max %d ms", count, millis, maximum);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Die Einträge eines HolidayManagers als HolidaySet. Abfragen gehen direkt an den Manager.
+ * Die Bitmenge eines Jahres wird aus dessen Kalenderblatt berechnet und erst gespeichert, wenn das Jahr
+ * ein zweites Mal abgefragt wird, einmalige Abfragen füllen also keinen Speicher. Gemerkt werden höchstens
+ * MAXIMUM_YEARS Jahre, bei mehr wird das am längsten nicht abgefragte verdrängt.
+ * Gespeicherte Bitmengen gelten nur, solange der Manager keine weiteren Feiertage aufgenommen hat.
+ * Die Klasse ist threadsicher, soweit es der Manager ist.
+ */
+final class ManagerHolidaySet implements HolidaySet {
+
+    static final int MAXIMUM_YEARS = 64;
+
+    private final HolidayManager manager;
+    //je Jahr die Bitmenge, bzw. null als Bitmenge, falls das Jahr erst einmal abgefragt wurde; über sich selbst synchronisiert
+    private final YearCache years = new YearCache();
+
+    ManagerHolidaySet(HolidayManager manager) {
+        if (manager == null) {
+            throw new NullPointerException();
+        }
+        this.manager = manager;
+    }
+
+    @Override
+    public List<CalendarEntry> getBetween(LocalDate from, LocalDate to) {
+        return manager.getBetween(from, to);
+    }
+
+    @Override
+    public List<CalendarEntry> calendarSheet(LocalDate date) {
+        return manager.calendarSheet(date);
+    }
+
+    @Override
+    public List<CalendarEntry> calendarSheet(YearMonth month) {
+        return manager.calendarSheet(month);
+    }
+
+    /**
+     * Ist die Bitmenge des Jahres nicht gespeichert, wird nur der Tag beim Manager abgefragt.
+     */
+    @Override
+    public boolean contains(LocalDate date) {
+        long[] days = cached(date.getYear());
+        if (days == null) {
+            return !manager.calendarSheet(date).isEmpty();
+        }
+        int index = date.getDayOfYear() - 1;
+        return (days[index >>> 6] & 1L << index) != 0;
+    }
+
+    @Override
+    public long[] getDays(int year) {
+        long[] days = cached(year);
+        if (days != null) {
+            return days.clone();
+        }
+        //Der Manager nimmt Feiertage nur auf, ihre Anzahl zeigt daher jede Änderung an
+        int holidayCount = manager.getHolidays().size();
+        days = new long[YEAR_WORDS];
+        for (CalendarEntry entry : manager.getBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))) {
+            int index = entry.getDate().getDayOfYear() - 1;
+            days[index >>> 6] |= 1L << index;
+        }
+        synchronized (years) {
+            boolean requested = years.containsKey(year);
+            years.put(year, new YearDays(holidayCount, requested ? days.clone() : null));
+        }
+        return days;
+    }
+
+    /**
+     * @return Liefert die gespeicherte, noch gültige Bitmenge des Jahres oder null.
+     */
+    private long[] cached(int year) {
+        YearDays cached;
+        synchronized (years) {
+            cached = years.get(year);
+        }
+        if (cached == null || cached.days == null || cached.holidayCount != manager.getHolidays().size()) {
+            return null;
+        }
+        return cached.days;
+    }
+
+    private static final class YearDays {
+
+        private final int holidayCount;
+        private final long[] days;
+
+        private YearDays(int holidayCount, long[] days) {
+            this.holidayCount = holidayCount;
+            this.days = days;
+        }
+    }
+
+    /**
+     * Die gemerkten Jahre in der Reihenfolge ihrer Abfrage, das am längsten nicht abgefragte wird zuerst verdrängt.
+     */
+    private static final class YearCache extends LinkedHashMap<Integer, YearDays> {
+
+        private static final long serialVersionUID = 1L;
+
+        private YearCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, YearDays> eldest) {
+            return size() > MAXIMUM_YEARS;
+        }
+    }
+}
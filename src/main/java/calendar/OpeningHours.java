@@ -0,0 +1,337 @@
+package calendar;
+
+import holiday.Holiday;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Die Klasse OpeningHours berechnet Öffnungszeiten aus einem Wochenplan und den Feiertagen eines HolidayManagers.
+ * An Feiertagen mit Sonderöffnungszeiten (z.B. Heiligabend) gelten diese, an den übrigen arbeitsfreien Feiertagen
+ * ist geschlossen, an allen anderen Tagen gilt der Wochenplan.
+ * Öffnungszeiten werden als Liste von Uhrzeiten angegeben, die abwechselnd Öffnung und Schließung sind,
+ * z.B. [09:00, 12:00, 13:00, 18:00]. Eine Schließung um 00:00 bedeutet Mitternacht am Ende des Tages.
+ *
+ * Jedes Jahr wird bei Bedarf in eine Folge von Öffnungsintervallen (in Minuten seit dem 1.1.1970) mit kumulierten
+ * Öffnungsminuten übersetzt, fehlende aufeinanderfolgende Jahre mit einer einzigen Abfrage des Managers. Die
+ * Öffnungsminuten ganzer Jahre stehen zusätzlich in einem Fenwick-Baum. Eine Abfrage ist danach eine binäre Suche
+ * je Randjahr und O(log n) für die Jahre dazwischen, unabhängig von der Länge des Zeitraums.
+ * Unterstützt werden die Jahre MIN_YEAR bis MAX_YEAR, Zeitpunkte außerhalb werden abgelehnt.
+ * Die Auflösung beträgt eine Minute, Sekunden werden abgeschnitten. Die Klasse ist threadsicher.
+ */
+public final class OpeningHours {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int[] CLOSED = new int[0];
+    //nextOpening sucht höchstens so viele Jahre voraus
+    static final int LOOKAHEAD_YEARS = 10;
+    public static final int MIN_YEAR = -9999;
+    public static final int MAX_YEAR = 9999;
+
+    private final HolidayManager manager;
+    private final int[][] weekly = new int[7][];
+    private final Map<String, int[]> overrides = new HashMap<>();
+    private final Predicate<Holiday> closes;
+    private final Map<Integer, Table> tables = new ConcurrentHashMap<>();
+    //übersetzte Jahre (Index year - MIN_YEAR) und Fenwick-Baum ihrer Öffnungsminuten, beide über this synchronisiert
+    private final BitSet compiled = new BitSet();
+    private final long[] totals = new long[MAX_YEAR - MIN_YEAR + 2];
+
+    /**
+     * @param manager liefert die Feiertage
+     * @param weekly sind die Öffnungszeiten je Wochentag, fehlende Wochentage sind geschlossen
+     * @param overrides sind Sonderöffnungszeiten je Name eines Feiertags, eine leere Liste bedeutet geschlossen
+     * @param closes entscheidet, an welchen Feiertagen ohne Sonderöffnungszeiten geschlossen ist,
+     * z.B. VacationOptimizer.nonWorking("Christmas Day", "New Year's Day")
+     */
+    public OpeningHours(HolidayManager manager, Map<DayOfWeek, List<LocalTime>> weekly, Map<String, List<LocalTime>> overrides,
+                        Predicate<Holiday> closes) {
+        if (manager == null || weekly == null || overrides == null || closes == null) {
+            throw new NullPointerException();
+        }
+        this.manager = manager;
+        this.closes = closes;
+        Arrays.fill(this.weekly, CLOSED);
+        for (Map.Entry<DayOfWeek, List<LocalTime>> day : new EnumMap<>(weekly).entrySet()) {
+            this.weekly[day.getKey().getValue() - 1] = minutes(day.getValue());
+        }
+        for (Map.Entry<String, List<LocalTime>> override : overrides.entrySet()) {
+            this.overrides.put(override.getKey(), minutes(override.getValue()));
+        }
+    }
+
+    /**
+     * @param time ist ein Zeitpunkt
+     * @return wahr, falls zum angegebenen Zeitpunkt geöffnet ist
+     */
+    public boolean isOpen(LocalDateTime time) {
+        long minute = epochMinute(time);
+        Table current = table(checkYear(time.getYear()));
+        int i = current.intervalAt(minute);
+        return i >= 0 && minute < current.ends[i];
+    }
+
+    /**
+     * @param time ist ein Zeitpunkt
+     * @return Liefert time, falls zu diesem Zeitpunkt geöffnet ist, sonst den Beginn der nächsten Öffnung.
+     * Wird in den nächsten LOOKAHEAD_YEARS Jahren (höchstens bis MAX_YEAR) nicht geöffnet, wird null geliefert.
+     */
+    public LocalDateTime nextOpening(LocalDateTime time) {
+        long minute = epochMinute(time);
+        int last = Math.min(checkYear(time.getYear()) + LOOKAHEAD_YEARS, MAX_YEAR);
+        for (int year = time.getYear(); year <= last; year++) {
+            Table current = table(year);
+            int i = current.intervalAt(minute);
+            if (i >= 0 && minute < current.ends[i]) {
+                return time;
+            }
+            if (i + 1 < current.starts.length) {
+                return toDateTime(current.starts[i + 1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param from ist der Beginn des Zeitraums (inklusive)
+     * @param to ist das Ende des Zeitraums (exklusive)
+     * @return Liefert die Anzahl der Minuten zwischen from und to, in denen geöffnet ist.
+     * Liegt "to" vor "from" oder eines der Jahre außerhalb von MIN_YEAR bis MAX_YEAR, wird eine
+     * IllegalArgumentException geworfen.
+     */
+    public long openMinutes(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new NullPointerException();
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        int firstYear = checkYear(from.getYear());
+        int lastYear = checkYear(to.getYear());
+        long open = table(lastYear).openBefore(epochMinute(to)) - table(firstYear).openBefore(epochMinute(from));
+        if (firstYear < lastYear) {
+            synchronized (this) {
+                compileYears(firstYear + 1, lastYear - 1);
+                open += openBeforeYear(lastYear) - openBeforeYear(firstYear);
+            }
+        }
+        return open;
+    }
+
+    private static int checkYear(int year) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("Das Jahr " + year + " liegt außerhalb von " + MIN_YEAR + " bis " + MAX_YEAR);
+        }
+        return year;
+    }
+
+    /**
+     * @return Liefert das übersetzte Jahr.
+     */
+    private Table table(int year) {
+        Table current = tables.get(year);
+        if (current == null) {
+            synchronized (this) {
+                compileYears(year, year);
+            }
+            current = tables.get(year);
+        }
+        return current;
+    }
+
+    /**
+     * Übersetzt die noch fehlenden Jahre von firstYear bis lastYear, jede Folge fehlender Jahre mit einer einzigen
+     * Abfrage des Managers. Der Aufrufer hält die Sperre.
+     */
+    private void compileYears(int firstYear, int lastYear) {
+        int year = compiled.nextClearBit(firstYear - MIN_YEAR) + MIN_YEAR;
+        while (year <= lastYear) {
+            int next = compiled.nextSetBit(year - MIN_YEAR);
+            int end = next < 0 ? lastYear : Math.min(lastYear, next + MIN_YEAR - 1);
+            List<CalendarEntry> entries = manager.getBetween(LocalDate.of(year, 1, 1), LocalDate.of(end, 12, 31));
+            int start = 0;
+            for (int current = year; current <= end; current++) {
+                int stop = start;
+                while (stop < entries.size() && entries.get(stop).getDate().getYear() == current) {
+                    stop++;
+                }
+                Table table = compile(current, entries.subList(start, stop));
+                tables.put(current, table);
+                compiled.set(current - MIN_YEAR);
+                addTotal(current, table.total());
+                start = stop;
+            }
+            year = compiled.nextClearBit(end - MIN_YEAR) + MIN_YEAR;
+        }
+    }
+
+    /**
+     * Übersetzt ein Jahr mit den Feiertagen des Jahres.
+     */
+    private Table compile(int year, List<CalendarEntry> entries) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int days = first.lengthOfYear();
+        int[][] byDay = new int[days][];
+        boolean[] closed = new boolean[days];
+        for (CalendarEntry entry : entries) {
+            int day = entry.getDate().getDayOfYear() - 1;
+            int[] override = overrides.get(entry.getHoliday().getName());
+            if (override != null) {
+                //bei mehreren Sonderöffnungszeiten an einem Tag gilt die des ersten Feiertags
+                if (byDay[day] == null) {
+                    byDay[day] = override;
+                }
+            } else if (closes.test(entry.getHoliday())) {
+                closed[day] = true;
+            }
+        }
+        Intervals intervals = new Intervals();
+        long epochDay = first.toEpochDay();
+        for (int day = 0; day < days; day++, epochDay++) {
+            int[] hours = byDay[day];
+            if (hours == null) {
+                hours = closed[day] ? CLOSED : weekly[LocalDate.ofEpochDay(epochDay).getDayOfWeek().getValue() - 1];
+            }
+            long midnight = epochDay * MINUTES_PER_DAY;
+            for (int i = 0; i < hours.length; i += 2) {
+                intervals.add(midnight + hours[i], midnight + hours[i + 1]);
+            }
+        }
+        return intervals.toTable();
+    }
+
+    /**
+     * @return Liefert die Öffnungsminuten der Jahre MIN_YEAR bis year - 1, soweit sie übersetzt sind.
+     */
+    private long openBeforeYear(int year) {
+        long sum = 0;
+        for (int i = year - MIN_YEAR; i > 0; i -= i & -i) {
+            sum += totals[i];
+        }
+        return sum;
+    }
+
+    private void addTotal(int year, long total) {
+        for (int i = year - MIN_YEAR + 1; i < totals.length; i += i & -i) {
+            totals[i] += total;
+        }
+    }
+
+    /**
+     * @return Liefert die Öffnungszeiten eines Tages in Minuten nach Mitternacht, abwechselnd Öffnung und Schließung.
+     */
+    private static int[] minutes(List<LocalTime> times) {
+        if (times == null) {
+            throw new NullPointerException();
+        }
+        if (times.size() % 2 != 0) {
+            throw new IllegalArgumentException("Öffnungszeiten müssen paarweise angegeben werden: " + times);
+        }
+        int[] minutes = new int[times.size()];
+        for (int i = 0; i < minutes.length; i++) {
+            LocalTime time = times.get(i);
+            minutes[i] = time.getHour() * 60 + time.getMinute();
+            if (i % 2 == 1 && minutes[i] == 0) {
+                minutes[i] = MINUTES_PER_DAY;
+            }
+            if (i > 0 && minutes[i] <= minutes[i - 1]) {
+                throw new IllegalArgumentException("Öffnungszeiten müssen aufsteigend sein: " + times);
+            }
+        }
+        return minutes;
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalDateTime toDateTime(long epochMinute) {
+        long epochDay = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        int minute = Math.floorMod(epochMinute, MINUTES_PER_DAY);
+        return LocalDate.ofEpochDay(epochDay).atTime(minute / 60, minute % 60);
+    }
+
+    /**
+     * Unveränderliche, übersetzte Öffnungsintervalle eines Jahres, aufsteigend und disjunkt.
+     */
+    private static final class Table {
+
+        private final long[] starts;
+        private final long[] ends;
+        //cumulative[i] ist die Summe der Öffnungsminuten aller Intervalle vor Intervall i
+        private final long[] cumulative;
+
+        private Table(long[] starts, long[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.cumulative = new long[starts.length + 1];
+            for (int i = 0; i < starts.length; i++) {
+                cumulative[i + 1] = cumulative[i] + ends[i] - starts[i];
+            }
+        }
+
+        /**
+         * @return Liefert den Index des letzten Intervalls, das vor oder zum Zeitpunkt minute beginnt, bzw. -1.
+         */
+        private int intervalAt(long minute) {
+            int i = Arrays.binarySearch(starts, minute);
+            return i >= 0 ? i : -i - 2;
+        }
+
+        /**
+         * @return Liefert die Öffnungsminuten vor dem Zeitpunkt minute.
+         */
+        private long openBefore(long minute) {
+            int i = intervalAt(minute);
+            if (i < 0) {
+                return 0;
+            }
+            return cumulative[i] + Math.min(minute, ends[i]) - starts[i];
+        }
+
+        /**
+         * @return Liefert die Öffnungsminuten des ganzen Jahres.
+         */
+        private long total() {
+            return cumulative[starts.length];
+        }
+    }
+
+    /**
+     * Sammelt Intervalle und verbindet dabei direkt aneinander anschließende (z.B. über Mitternacht).
+     */
+    private static final class Intervals {
+
+        private long[] starts = new long[512];
+        private long[] ends = new long[512];
+        private int size;
+
+        private void add(long start, long end) {
+            if (size > 0 && ends[size - 1] == start) {
+                ends[size - 1] = end;
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        private Table toTable() {
+            return new Table(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package calendar;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis einer Abfrage mit Frist (siehe HolidayManager.getBetween(LocalDate, LocalDate, Deadline)).
+ * Ist die Frist abgelaufen, enthält es die bis dahin vollständig bestimmten Termine.
+ */
+public final class PartialResult {
+
+    private final List<CalendarEntry> entries;
+    private final boolean complete;
+    private final LocalDate completeBefore;
+
+    PartialResult(List<CalendarEntry> entries, boolean complete, LocalDate completeBefore) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.complete = complete;
+        this.completeBefore = completeBefore;
+    }
+
+    /**
+     * @return Liefert die bestimmten Termine, sortiert wie beim Aufruf ohne Frist.
+     */
+    public List<CalendarEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return wahr, falls die Abfrage vor Ablauf der Frist vollständig beantwortet wurde
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return Liefert den ersten Tag, ab dem Termine fehlen können. Alle Termine davor sind in getEntries() enthalten.
+     */
+    public LocalDate getCompleteBefore() {
+        return completeBefore;
+    }
+
+    @Override
+    public String toString() {
+        return (complete ? "vollständig: " : "unvollständig vor " + completeBefore + ": ") + entries;
+    }
+}
@@ -0,0 +1,204 @@
+package calendar;
+
+import holiday.Fingerprint;
+import holiday.Holiday;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Die Klasse PrecomputedTable beantwortet Abfragen zu einem Sample aus HolidayStock aus einer zur Build-Zeit
+ * erzeugten Tabelle (siehe TableGenerator), ohne einen einzigen Feiertag auszuwerten.
+ * Die Tabelle wird erst bei der ersten Abfrage aus dem Klassenpfad geladen. Fehlt sie, weil ohne das Profil
+ * "precompute" gebaut wurde, deckt sie kein Jahr ab und alle Abfragen müssen an den HolidayManager gehen.
+ * Die Ergebnisse stimmen mit denen des HolidayManagers für dieselben Feiertage überein.
+ */
+public final class PrecomputedTable {
+
+    static final int DEFAULT_FROM = 1900;
+    static final int DEFAULT_TO = 2100;
+
+    private final String resource;
+    private final List<Holiday> holidays;
+
+    //werden beim ersten Zugriff gesetzt, loaded wird als letztes geschrieben
+    private int from;
+    private int to;
+    private int[] yearStart;
+    private short[] rules;
+    private short[] daysOfYear;
+    private volatile boolean loaded;
+
+    private PrecomputedTable(String resource, List<Holiday> holidays) {
+        this.resource = resource;
+        this.holidays = holidays;
+    }
+
+    /**
+     * @param sample ist der Name des Samples (A, B oder C)
+     * @param holidays sind die Feiertage des Samples, wie sie HolidayStock liefert
+     * @return Liefert die (noch nicht geladene) Tabelle des Samples.
+     */
+    public static PrecomputedTable forSample(String sample, List<Holiday> holidays) {
+        if (sample == null || holidays == null) {
+            throw new NullPointerException();
+        }
+        return new PrecomputedTable("/" + resourceName(sample), new ArrayList<>(holidays));
+    }
+
+    static String resourceName(String sample) {
+        return "calendar/tables/sample" + sample.toUpperCase() + ".bin";
+    }
+
+    /**
+     * @param year ist ein Jahr
+     * @return wahr, falls die Tabelle das Jahr enthält
+     */
+    public boolean covers(int year) {
+        load();
+        return yearStart != null && year >= from && year <= to;
+    }
+
+    /**
+     * @return wahr, falls die Tabelle alle Tage zwischen from und to (beide inklusive) enthält
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        return covers(from.getYear()) && covers(to.getYear());
+    }
+
+    /**
+     * Wie HolidayManager.calendarSheet(int), das Jahr muss in der Tabelle liegen (siehe covers()).
+     */
+    public List<CalendarEntry> calendarSheet(int year) {
+        return slice(year, 1, 366);
+    }
+
+    /**
+     * Wie HolidayManager.calendarSheet(YearMonth), der Monat muss in der Tabelle liegen (siehe covers()).
+     */
+    public List<CalendarEntry> calendarSheet(YearMonth month) {
+        return slice(month.getYear(), month.atDay(1).getDayOfYear(), month.atEndOfMonth().getDayOfYear());
+    }
+
+    /**
+     * Wie HolidayManager.calendarSheet(LocalDate), das Datum muss in der Tabelle liegen (siehe covers()).
+     */
+    public List<CalendarEntry> calendarSheet(LocalDate date) {
+        return slice(date.getYear(), date.getDayOfYear(), date.getDayOfYear());
+    }
+
+    /**
+     * Wie HolidayManager.getBetween(LocalDate, LocalDate), beide Daten müssen in der Tabelle liegen (siehe covers()).
+     */
+    public List<CalendarEntry> getBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to war vor from");
+        }
+        List<CalendarEntry> entries = new ArrayList<>();
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            int first = year == from.getYear() ? from.getDayOfYear() : 1;
+            int last = year == to.getYear() ? to.getDayOfYear() : 366;
+            entries.addAll(slice(year, first, last));
+        }
+        return entries;
+    }
+
+    /**
+     * @return Liefert die Einträge eines Jahres vom Tag first bis zum Tag last (beide inklusive).
+     * Die Einträge eines Jahres sind nach Datum sortiert, Ausschnitte bleiben daher sortiert.
+     */
+    private List<CalendarEntry> slice(int year, int first, int last) {
+        if (!covers(year)) {
+            throw new IllegalArgumentException(year + " liegt nicht in der Tabelle " + resource);
+        }
+        int start = yearStart[year - from];
+        int end = yearStart[year - from + 1];
+        List<CalendarEntry> entries = new ArrayList<>();
+        LocalDate firstOfYear = LocalDate.of(year, 1, 1);
+        for (int i = start; i < end; i++) {
+            int dayOfYear = daysOfYear[i];
+            if (dayOfYear >= first && dayOfYear <= last) {
+                entries.add(new CalendarEntry(firstOfYear.plusDays(dayOfYear - 1), holidays.get(rules[i])));
+            } else if (dayOfYear > last) {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            InputStream stream = PrecomputedTable.class.getResourceAsStream(resource);
+            if (stream != null) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+                    read(in);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Tabelle " + resource + " ist fehlerhaft", ex);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * Liest eine von TableGenerator geschriebene Tabelle. Passen die Feiertage nicht zu den übergebenen, wird die
+     * Tabelle verworfen. Verglichen werden Name und Fingerabdruck, eine geänderte Regel unter gleichem Namen
+     * verwirft die Tabelle also ebenso wie ein Feiertag ohne bekannte Definition.
+     */
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != TableGenerator.MAGIC) {
+            throw new IOException("unbekanntes Format");
+        }
+        int first = in.readInt();
+        int last = in.readInt();
+        int count = in.readInt();
+        if (count != holidays.size()) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            long fingerprint = in.readLong();
+            if (!name.equals(holidays.get(i).getName()) || fingerprint == Fingerprint.UNKNOWN
+                    || fingerprint != holidays.get(i).fingerprint()) {
+                return;
+            }
+        }
+        int[] starts = new int[last - first + 2];
+        short[] ruleIndices = new short[1024];
+        short[] days = new short[1024];
+        int size = 0;
+        for (int year = first; year <= last; year++) {
+            int entries = in.readInt();
+            if (size + entries > ruleIndices.length) {
+                int capacity = Math.max(ruleIndices.length * 2, size + entries);
+                ruleIndices = Arrays.copyOf(ruleIndices, capacity);
+                days = Arrays.copyOf(days, capacity);
+            }
+            for (int i = 0; i < entries; i++) {
+                ruleIndices[size] = in.readShort();
+                days[size] = in.readShort();
+                size++;
+            }
+            starts[year - first + 1] = size;
+        }
+        this.from = first;
+        this.to = last;
+        this.rules = ruleIndices;
+        this.daysOfYear = days;
+        this.yearStart = starts;
+    }
+}
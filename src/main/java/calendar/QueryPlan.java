@@ -0,0 +1,102 @@
+package calendar;
+
+import holiday.Holiday;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Die Klasse QueryPlan beschreibt zu Diagnosezwecken, wie der HolidayManager die Termine eines Zeitraums
+ * bestimmt (siehe HolidayManager.explain): die Strategie für die fixierten Feiertage und für jeden im Zeitraum
+ * gültigen übrigen Feiertag, jeweils mit den geschätzten Kosten in Nanosekunden (siehe QueryPlanner).
+ * Ein Plan ist eine Momentaufnahme, da sich die Wahl mit den bereits berechneten Tabellen ändert.
+ */
+public final class QueryPlan {
+
+    /**
+     * Wege, die Termine eines Zeitraums zu bestimmen.
+     */
+    public enum Strategy {
+        /** Fixierte Feiertage: der Index wird Tag für Tag abgefragt. */
+        INDEX_BY_DAY,
+        /** Fixierte Feiertage: je Jahr werden nur die belegten Tage des Index berührt. */
+        INDEX_BY_YEAR,
+        /** Der Feiertag springt an den Anfang des Zeitraums und wird Termin für Termin angewendet. */
+        STEP,
+        /** Die Termine werden in der Zyklustabelle des periodischen Feiertags nachgeschlagen, die ggf. erst berechnet wird. */
+        CYCLE_TABLE,
+        /** Die Termine werden je Jahr aus der übersetzten Regel berechnet (siehe HolidayCompiler). */
+        YEAR_FORMULA
+    }
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Strategy fixedStrategy;
+    private final long fixedCost;
+    private final List<Holiday> holidays = new ArrayList<>();
+    private final List<Strategy> strategies = new ArrayList<>();
+    private final List<Long> costs = new ArrayList<>();
+
+    QueryPlan(LocalDate from, LocalDate to, Strategy fixedStrategy, long fixedCost) {
+        this.from = from;
+        this.to = to;
+        this.fixedStrategy = fixedStrategy;
+        this.fixedCost = fixedCost;
+    }
+
+    void add(Holiday holiday, Strategy strategy, long cost) {
+        holidays.add(holiday);
+        strategies.add(strategy);
+        costs.add(cost);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * @return Liefert die Strategie für die fixierten Feiertage.
+     */
+    public Strategy getFixedStrategy() {
+        return fixedStrategy;
+    }
+
+    /**
+     * @return Liefert die Strategie für einen nicht fixierten Feiertag oder null, falls er im Zeitraum nicht gilt.
+     */
+    public Strategy getStrategy(Holiday holiday) {
+        int index = holidays.indexOf(holiday);
+        return index < 0 ? null : strategies.get(index);
+    }
+
+    /**
+     * @return Liefert die geschätzten Gesamtkosten in Nanosekunden.
+     */
+    public long getEstimatedCost() {
+        long cost = fixedCost;
+        for (long value : costs) {
+            cost += value;
+        }
+        return cost;
+    }
+
+    /**
+     * @return Liefert eine Zeile je Strategie, z.B. "Ostersonntag: YEAR_FORMULA (~4000 ns)".
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(from).append(" bis ").append(to).append(": ~").append(getEstimatedCost()).append(" ns").append('\n');
+        builder.append("  fixierte Feiertage: ").append(fixedStrategy).append(" (~").append(fixedCost).append(" ns)").append('\n');
+        for (int i = 0; i < holidays.size(); i++) {
+            builder.append("  ").append(holidays.get(i)).append(": ").append(strategies.get(i))
+                    .append(" (~").append(costs.get(i)).append(" ns)").append('\n');
+        }
+        return builder.toString();
+    }
+}
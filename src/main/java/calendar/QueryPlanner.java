@@ -0,0 +1,144 @@
+package calendar;
+
+import holiday.CachedHoliday;
+import holiday.CompiledHolidaySet;
+import holiday.DependentHoliday;
+import holiday.DiscordianHolidays;
+import holiday.FloatingHoliday;
+import holiday.FourDayWeekend;
+import holiday.GregorianCycle;
+import holiday.Holiday;
+import holiday.HolidayCompiler;
+import holiday.MoonPhases;
+
+import java.util.Collections;
+
+/**
+ * Kostenmodell, mit dem der HolidayManager je Abfrage und Feiertag den günstigsten Weg wählt (siehe QueryPlan.Strategy).
+ * Die Kosten sind grobe, auf einem aktuellen Rechner gemessene Schätzungen in Nanosekunden. Es kommt nur auf ihr
+ * Verhältnis an: Ein Tag ist am schnellsten schrittweise berechnet, ein Jahrhundert über Formeln oder Tabellen.
+ *
+ * Die Zyklustabelle eines periodischen Feiertags kostet bei ihrer Berechnung so viel wie 400 Jahre Schritte.
+ * Sie wird wie beim "Ski-Verleih" erst berechnet, wenn die bisher für den Feiertag ausgegebenen Schritte zusammen
+ * mit der aktuellen Abfrage ihre Berechnung aufwiegen. Im ungünstigsten Fall kostet das doppelt so viel wie die
+ * im Nachhinein beste Entscheidung, einzelne kurze Abfragen berechnen dagegen nie eine Tabelle.
+ */
+final class QueryPlanner {
+
+    //Index der fixierten Feiertage: je Tag des Zeitraums, bzw. je belegtem Tag und Jahr
+    static final long INDEX_DAY = 10;
+    static final long INDEX_SLOT = 15;
+    //Zyklustabelle: Binärsuche, dann je Termin
+    static final long TABLE_LOOKUP = 100;
+    static final long TABLE_OCCURRENCE = 15;
+    //übersetzte Regel je Jahr, abhängige Feiertage werten drei Jahre ihres Ankers aus
+    static final long FORMULA_YEAR = 40;
+    //ein Schritt, also ein Aufruf von adjustInto
+    static final long STEP_RULE = 400;
+    static final long STEP_MOON = 300;
+    static final long STEP_CACHED = 150;
+    static final long STEP_BRIDGE_TABLE = 100;
+    static final long STEP_BRIDGE_SEARCH = 200_000;
+    static final long STEP_UNKNOWN = 1000;
+
+    private static final double YEARLY = 1 / 365.2425;
+
+    private QueryPlanner() {
+    }
+
+    /**
+     * @return Liefert die Strategie für die fixierten Feiertage in einem Zeitraum von days Tagen in years Jahren.
+     */
+    static QueryPlan.Strategy fixedStrategy(long days, int years, int occupiedDays) {
+        return fixedCost(QueryPlan.Strategy.INDEX_BY_YEAR, days, years, occupiedDays)
+                < fixedCost(QueryPlan.Strategy.INDEX_BY_DAY, days, years, occupiedDays)
+                ? QueryPlan.Strategy.INDEX_BY_YEAR : QueryPlan.Strategy.INDEX_BY_DAY;
+    }
+
+    static long fixedCost(QueryPlan.Strategy strategy, long days, int years, int occupiedDays) {
+        return strategy == QueryPlan.Strategy.INDEX_BY_YEAR ? (long) years * occupiedDays * INDEX_SLOT : days * INDEX_DAY;
+    }
+
+    /**
+     * @return Liefert die Kosten, die Termine eines Feiertags in days Tagen schrittweise zu bestimmen.
+     */
+    static long stepWindow(long stepCost, double rate, long days) {
+        return stepCost * (1 + (long) Math.ceil(rate * days));
+    }
+
+    static long tableWindow(double rate, long days) {
+        return TABLE_LOOKUP + TABLE_OCCURRENCE * (long) Math.ceil(rate * days);
+    }
+
+    static long formulaWindow(Holiday rule, int years) {
+        return (unwrap(rule) instanceof DependentHoliday ? 3 : 1) * FORMULA_YEAR * years;
+    }
+
+    /**
+     * @return Liefert die geschätzten Kosten eines Schritts des Feiertags.
+     */
+    static long stepCost(Holiday rule) {
+        if (rule instanceof CachedHoliday) {
+            return STEP_CACHED;
+        }
+        if (rule instanceof MoonPhases) {
+            return STEP_MOON;
+        }
+        if (rule instanceof FourDayWeekend) {
+            return GregorianCycle.isPeriodic(rule) ? STEP_BRIDGE_TABLE : STEP_BRIDGE_SEARCH;
+        }
+        if (rule instanceof DependentHoliday) {
+            //adjustInto befragt den Anker zweimal
+            return 2 * stepCost(((DependentHoliday) rule).getAnchor());
+        }
+        if (rule instanceof FloatingHoliday || rule instanceof DiscordianHolidays) {
+            return STEP_RULE;
+        }
+        return STEP_UNKNOWN;
+    }
+
+    /**
+     * @return Liefert die geschätzte Anzahl der Termine des Feiertags je Tag.
+     */
+    static double occurrencesPerDay(Holiday rule) {
+        rule = unwrap(rule);
+        if (rule instanceof MoonPhases) {
+            return 1 / 29.530588861;
+        }
+        if (rule instanceof FourDayWeekend) {
+            //etwa die Hälfte der Feiertage fällt auf Dienstag oder Donnerstag
+            return ((FourDayWeekend) rule).getHolidays().size() * YEARLY / 2;
+        }
+        if (rule instanceof DependentHoliday) {
+            return occurrencesPerDay(((DependentHoliday) rule).getAnchor());
+        }
+        return YEARLY;
+    }
+
+    /**
+     * @return Liefert die geschätzten Kosten der Zyklustabelle eines periodischen Feiertags.
+     */
+    static long buildCost(Holiday rule) {
+        rule = unwrap(rule);
+        if (rule instanceof FourDayWeekend) {
+            long cost = GregorianCycle.DAYS;
+            for (Holiday holiday : ((FourDayWeekend) rule).getHolidays()) {
+                cost += buildCost(holiday);
+            }
+            return cost;
+        }
+        return (long) (occurrencesPerDay(rule) * GregorianCycle.DAYS * stepCost(rule));
+    }
+
+    /**
+     * @return Liefert den übersetzten Feiertag oder null, falls er sich nicht ohne adjustInto berechnen lässt.
+     */
+    static CompiledHolidaySet compile(Holiday rule) {
+        CompiledHolidaySet compiled = HolidayCompiler.compile(Collections.singletonList(rule));
+        return compiled.getFallbackCount() == 0 ? compiled : null;
+    }
+
+    private static Holiday unwrap(Holiday rule) {
+        return rule instanceof CachedHoliday ? ((CachedHoliday) rule).getHoliday() : rule;
+    }
+}
@@ -0,0 +1,363 @@
+package calendar;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Die Klasse QueryProfile zählt, welche Jahre, Monate, Zeiträume und getNext-Jahre ein HolidayManager abfragt
+ * (siehe HolidayManager.setQueryProfile), und speichert diese Häufigkeiten regelmäßig in einer Textdatei.
+ * Nach einem Neustart wird das Profil geladen und mit warmUp im Hintergrund auf allen Kernen nachgespielt:
+ * Die häufigsten Abfragen füllen die Zyklustabellen und Zwischenspeicher (CachedHoliday) des neuen Managers,
+ * häufige getNext-Jahre werden mit precomputeNext vorberechnet. Erst danach sollte der Dienst bereit melden.
+ *
+ * Je Art werden höchstens MAXIMUM_KEYS verschiedene Schlüssel gezählt, weitere werden verworfen.
+ * Die Datei enthält eine Zeile je Schlüssel, z.B. "month 2024-12 17" oder "range 2024-01-01 2024-03-31 4".
+ * Die Klasse ist threadsicher.
+ */
+public final class QueryProfile implements Closeable {
+
+    public static final int MAXIMUM_KEYS = 4096;
+    //so viele Jahre werden für getNext höchstens vorberechnet
+    static final int MAXIMUM_NEXT_YEARS = 200;
+
+    private static final String YEAR = "year";
+    private static final String MONTH = "month";
+    private static final String RANGE = "range";
+    private static final String NEXT = "next";
+
+    //Schlüssel: Jahr, Jahr * 12 + Monat - 1, von (Epoch Day) << 32 | bis (Epoch Day), Jahr der Referenz
+    private final Map<Long, LongAdder> years = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> months = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> ranges = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> nexts = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private ScheduledExecutorService persister;
+    private Path file;
+    private volatile Exception lastFailure;
+
+    /**
+     * Erstellt ein leeres Profil.
+     */
+    public QueryProfile() {
+    }
+
+    /**
+     * Lädt ein gespeichertes Profil. Fehlt die Datei, etwa beim ersten Start, ist das Profil leer.
+     * @throws IOException falls die Datei nicht gelesen werden kann
+     * @throws IllegalArgumentException falls eine Zeile fehlerhaft ist
+     */
+    public static QueryProfile load(Path file) throws IOException {
+        QueryProfile profile = new QueryProfile();
+        if (!Files.exists(file)) {
+            return profile;
+        }
+        int number = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                long count = Long.parseLong(fields[fields.length - 1]);
+                switch (fields[0]) {
+                    case YEAR:
+                        profile.count(profile.years, Integer.parseInt(fields[1]), count);
+                        break;
+                    case MONTH:
+                        profile.count(profile.months, monthKey(YearMonth.parse(fields[1])), count);
+                        break;
+                    case RANGE:
+                        profile.count(profile.ranges, rangeKey(LocalDate.parse(fields[1]), LocalDate.parse(fields[2])), count);
+                        break;
+                    case NEXT:
+                        profile.count(profile.nexts, Integer.parseInt(fields[1]), count);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unbekannte Art " + fields[0]);
+                }
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Zeile " + number + " in " + file + " ist fehlerhaft: " + line, ex);
+            }
+        }
+        return profile;
+    }
+
+    void recordYear(int year) {
+        count(years, year, 1);
+    }
+
+    void recordMonth(YearMonth month) {
+        count(months, monthKey(month), 1);
+    }
+
+    void recordRange(LocalDate from, LocalDate to) {
+        count(ranges, rangeKey(from, to), 1);
+    }
+
+    void recordNext(LocalDate reference) {
+        count(nexts, reference.getYear(), 1);
+    }
+
+    /**
+     * @return Liefert die Anzahl der Abfragen, die wegen voller Tabellen nicht gezählt wurden.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Liefert den Fehler des letzten fehlgeschlagenen Speicherns oder null.
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Schreibt das Profil in eine temporäre Datei neben file und ersetzt file dann atomar,
+     * ein Absturz während des Schreibens hinterlässt also nie eine halbe Datei.
+     * @throws IOException falls die Datei nicht geschrieben werden kann
+     */
+    public void save(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write("# Abfrageprofil eines HolidayManagers: Art, Schlüssel, Anzahl");
+                writer.newLine();
+                for (Key key : keys()) {
+                    writer.write(key.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Speichert das Profil in einem Hintergrund-Thread alle period Einheiten in file, bis close() aufgerufen wird.
+     * Fehler beim Speichern beenden das regelmäßige Speichern nicht, sie sind über getLastFailure() abrufbar.
+     */
+    public synchronized void persistTo(Path file, long period, TimeUnit unit) {
+        if (file == null || unit == null) {
+            throw new NullPointerException();
+        }
+        if (period <= 0) {
+            throw new IllegalArgumentException("period muss positiv sein");
+        }
+        if (persister != null) {
+            throw new IllegalStateException("Das Profil wird bereits gespeichert");
+        }
+        this.file = file;
+        persister = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "query-profile-" + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        persister.scheduleWithFixedDelay(this::persist, period, period, unit);
+    }
+
+    /**
+     * Beendet das regelmäßige Speichern und speichert das Profil ein letztes Mal.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (persister == null) {
+            return;
+        }
+        persister.shutdownNow();
+        persister = null;
+        save(file);
+    }
+
+    private void persist() {
+        try {
+            save(file);
+            lastFailure = null;
+        } catch (IOException | RuntimeException ex) {
+            lastFailure = ex;
+        }
+    }
+
+    /**
+     * Spielt die limit häufigsten Abfragen des Profils im Hintergrund auf einem Thread je Kern gegen den Manager ab.
+     * Häufige getNext-Jahre werden, falls der Manager noch keine Nachfolgertabelle hat, als ein zusammenhängender
+     * Bereich von höchstens MAXIMUM_NEXT_YEARS Jahren mit precomputeNext vorberechnet. Gewählt wird der Bereich, in
+     * dem die meisten getNext-Abfragen liegen, einzelne weit entfernte Jahre verdrängen also nicht die häufigen.
+     * Fehlerhafte Abfragen (z.B. das Jahr 0) werden übersprungen.
+     * @return Liefert eine Future mit der Anzahl der nachgespielten Abfragen, die nach dem Aufwärmen erfüllt wird.
+     */
+    public CompletableFuture<Integer> warmUp(HolidayManager manager, int limit) {
+        if (manager == null) {
+            throw new NullPointerException();
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit war negativ");
+        }
+        List<Key> keys = keys();
+        keys.sort((a, b) -> Long.compare(b.count, a.count));
+        keys = keys.subList(0, Math.min(limit, keys.size()));
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "query-profile-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger warmed = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        List<Key> nextKeys = new ArrayList<>();
+        for (Key key : keys) {
+            if (key.kind.equals(NEXT)) {
+                nextKeys.add(key);
+                continue;
+            }
+            tasks.add(CompletableFuture.runAsync(() -> {
+                replay(manager, key);
+                warmed.incrementAndGet();
+            }, executor));
+        }
+        if (!nextKeys.isEmpty() && !manager.hasSuccessorTable()) {
+            int[] window = nextWindow(nextKeys);
+            int from = window[0];
+            int to = window[1];
+            tasks.add(CompletableFuture.runAsync(() -> {
+                manager.precomputeNext(from, to);
+                warmed.incrementAndGet();
+            }, executor));
+        }
+        return CompletableFuture.allOf(tasks.stream()
+                        .map(task -> task.exceptionally(ex -> null))
+                        .toArray(CompletableFuture[]::new))
+                .handle((ignored, ex) -> {
+                    executor.shutdown();
+                    return warmed.get();
+                });
+    }
+
+    /**
+     * @return Liefert das erste und letzte Jahr des Bereichs von höchstens MAXIMUM_NEXT_YEARS Jahren,
+     * der die meisten der gezählten getNext-Abfragen enthält. Bei Gleichstand gewinnt der früheste.
+     */
+    private static int[] nextWindow(List<Key> nextKeys) {
+        List<Key> sorted = new ArrayList<>(nextKeys);
+        sorted.sort((a, b) -> Long.compare(a.key, b.key));
+        int bestStart = 0;
+        int bestEnd = 0;
+        long bestCount = -1;
+        long count = 0;
+        int start = 0;
+        for (int end = 0; end < sorted.size(); end++) {
+            count += sorted.get(end).count;
+            while (sorted.get(end).key - sorted.get(start).key >= MAXIMUM_NEXT_YEARS) {
+                count -= sorted.get(start).count;
+                start++;
+            }
+            if (count > bestCount) {
+                bestCount = count;
+                bestStart = start;
+                bestEnd = end;
+            }
+        }
+        return new int[]{(int) sorted.get(bestStart).key, (int) sorted.get(bestEnd).key};
+    }
+
+    private static void replay(HolidayManager manager, Key key) {
+        switch (key.kind) {
+            case YEAR:
+                manager.calendarSheet((int) key.key);
+                break;
+            case MONTH:
+                manager.calendarSheet(YearMonth.of((int) Math.floorDiv(key.key, 12), Math.floorMod(key.key, 12) + 1));
+                break;
+            default:
+                manager.getBetween(LocalDate.ofEpochDay(key.key >> 32), LocalDate.ofEpochDay((int) key.key));
+        }
+    }
+
+    private void count(Map<Long, LongAdder> counts, long key, long count) {
+        LongAdder adder = counts.get(key);
+        if (adder == null) {
+            //Die Größe ist bei gleichzeitigem Einfügen nur ungefähr begrenzt, das genügt hier
+            if (counts.size() >= MAXIMUM_KEYS) {
+                dropped.add(count);
+                return;
+            }
+            adder = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.add(count);
+    }
+
+    private static long monthKey(YearMonth month) {
+        return month.getYear() * 12L + month.getMonthValue() - 1;
+    }
+
+    private static long rangeKey(LocalDate from, LocalDate to) {
+        return from.toEpochDay() << 32 | to.toEpochDay() & 0xFFFFFFFFL;
+    }
+
+    private List<Key> keys() {
+        List<Key> keys = new ArrayList<>();
+        addKeys(keys, YEAR, years);
+        addKeys(keys, MONTH, months);
+        addKeys(keys, RANGE, ranges);
+        addKeys(keys, NEXT, nexts);
+        return keys;
+    }
+
+    private static void addKeys(List<Key> keys, String kind, Map<Long, LongAdder> counts) {
+        for (Map.Entry<Long, LongAdder> entry : counts.entrySet()) {
+            keys.add(new Key(kind, entry.getKey(), entry.getValue().sum()));
+        }
+    }
+
+    /**
+     * Ein gezählter Schlüssel mit seiner Art und Anzahl.
+     */
+    private static final class Key {
+
+        private final String kind;
+        private final long key;
+        private final long count;
+
+        private Key(String kind, long key, long count) {
+            this.kind = kind;
+            this.key = key;
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case MONTH:
+                    return kind + " " + YearMonth.of((int) Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1) + " " + count;
+                case RANGE:
+                    return kind + " " + LocalDate.ofEpochDay(key >> 32) + " " + LocalDate.ofEpochDay((int) key) + " " + count;
+                default:
+                    return kind + " " + key + " " + count;
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package calendar;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Die Termine eines HolidayManagers von heute bis in days Tagen (beide inklusive), also getBetween(heute, heute + days),
+ * als laufend nachgeführte Ansicht, z.B. für Übersichten der kommenden 30, 90 oder 365 Tage.
+ *
+ * Wechselt das Datum, werden die vergangenen Tage verworfen und nur die Termine der neu hinzugekommenen Tage beim
+ * Manager abgefragt. Sie werden hinter die bisherigen Einträge in dasselbe Array geschrieben, ältere Snapshots
+ * sehen davon nichts, da sie nur ihren eigenen Ausschnitt lesen. Erst wenn das Array voll ist, werden die
+ * aktuellen Einträge in ein doppelt so großes kopiert. Der Aufwand je Tag entspricht also dem Wechsel eines Tages
+ * und nicht dem ganzen Zeitraum.
+ *
+ * Lesende Threads erhalten den aktuellen Snapshot ohne Sperre. Nur wer als erster nach einem Datumswechsel liest,
+ * schreibt den Snapshot fort, gleichzeitige Leser warten so lange. Nimmt der Manager weitere Feiertage auf oder
+ * springt das Datum zurück oder weiter als der Zeitraum, wird der Zeitraum vollständig neu abgefragt.
+ */
+public final class RollingWindow {
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private final HolidayManager manager;
+    private final int days;
+    private final Clock clock;
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param manager ist der Manager, dessen Termine angezeigt werden
+     * @param days ist die Anzahl der Tage nach heute, die der Zeitraum umfasst
+     */
+    public RollingWindow(HolidayManager manager, int days) {
+        this(manager, days, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param clock bestimmt das heutige Datum
+     */
+    public RollingWindow(HolidayManager manager, int days, Clock clock) {
+        if (manager == null || clock == null) {
+            throw new NullPointerException();
+        }
+        if (days < 0) {
+            throw new IllegalArgumentException("days war negativ");
+        }
+        this.manager = manager;
+        this.days = days;
+        this.clock = clock;
+    }
+
+    /**
+     * @return Liefert den Snapshot für das heutige Datum, der Zeitraum wird dazu ggf. fortgeschrieben.
+     */
+    public Snapshot snapshot() {
+        LocalDate today = LocalDate.now(clock);
+        Snapshot current = snapshot;
+        if (current != null && current.from.equals(today) && current.holidayCount == manager.getHolidays().size()) {
+            return current;
+        }
+        synchronized (lock) {
+            current = snapshot;
+            int holidayCount = manager.getHolidays().size();
+            if (current == null || current.holidayCount != holidayCount
+                    || today.isBefore(current.from) || today.isAfter(current.to)) {
+                LocalDate to = today.plusDays(days);
+                List<CalendarEntry> entries = manager.getBetween(today, to);
+                CalendarEntry[] backing = entries.toArray(new CalendarEntry[Math.max(MINIMUM_CAPACITY, 2 * entries.size())]);
+                current = new Snapshot(backing, 0, entries.size(), today, to, holidayCount);
+            } else if (!current.from.equals(today)) {
+                current = advance(current, today);
+            }
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * @return Liefert die Einträge von heute bis in days Tagen.
+     */
+    public List<CalendarEntry> getEntries() {
+        return snapshot().getEntries();
+    }
+
+    /**
+     * Verwirft die Einträge vor today und hängt die Termine der neuen Tage an. Der alte Snapshot ist der letzte
+     * veröffentlichte, hinter seinem Ende hat also noch niemand in das Array geschrieben.
+     */
+    private Snapshot advance(Snapshot current, LocalDate today) {
+        LocalDate to = today.plusDays(days);
+        int start = current.indexOf(today);
+        List<CalendarEntry> added = manager.getBetween(current.to.plusDays(1), to);
+        CalendarEntry[] backing = current.entries;
+        int end = current.end;
+        if (end + added.size() > backing.length) {
+            int size = end - start + added.size();
+            CalendarEntry[] larger = new CalendarEntry[Math.max(MINIMUM_CAPACITY, 2 * size)];
+            System.arraycopy(backing, start, larger, 0, end - start);
+            backing = larger;
+            end -= start;
+            start = 0;
+        }
+        for (CalendarEntry entry : added) {
+            backing[end++] = entry;
+        }
+        return new Snapshot(backing, start, end, today, to, current.holidayCount);
+    }
+
+    /**
+     * Unveränderlicher Stand des Zeitraums. Die Einträge sind aufsteigend sortiert nach Datum,
+     * bei gleichem Datum nach dem Namen des Feiertags.
+     */
+    public static final class Snapshot {
+
+        private final CalendarEntry[] entries;
+        private final int start;
+        private final int end;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int holidayCount;
+
+        private Snapshot(CalendarEntry[] entries, int start, int end, LocalDate from, LocalDate to, int holidayCount) {
+            this.entries = entries;
+            this.start = start;
+            this.end = end;
+            this.from = from;
+            this.to = to;
+            this.holidayCount = holidayCount;
+        }
+
+        /**
+         * @return Liefert das Datum, für das der Snapshot gilt.
+         */
+        public LocalDate getFrom() {
+            return from;
+        }
+
+        /**
+         * @return Liefert den letzten Tag des Zeitraums (inklusive).
+         */
+        public LocalDate getTo() {
+            return to;
+        }
+
+        /**
+         * @return Liefert eine nicht veränderbare Ansicht auf die Einträge des Zeitraums.
+         */
+        public List<CalendarEntry> getEntries() {
+            return Collections.unmodifiableList(Arrays.asList(entries).subList(start, end));
+        }
+
+        /**
+         * @param days ist die Anzahl der Tage nach getFrom(), höchstens die des Zeitraums
+         * @return Liefert eine nicht veränderbare Ansicht auf die Einträge von getFrom() bis in days Tagen,
+         * z.B. die nächsten 30 Tage eines Zeitraums über 365 Tage.
+         */
+        public List<CalendarEntry> getEntries(int days) {
+            if (days < 0) {
+                throw new IllegalArgumentException("days war negativ");
+            }
+            LocalDate last = from.plusDays(days);
+            if (last.isAfter(to)) {
+                throw new IllegalArgumentException("days überschreitet den Zeitraum");
+            }
+            return Collections.unmodifiableList(Arrays.asList(entries).subList(start, indexOf(last.plusDays(1))));
+        }
+
+        /**
+         * @return Liefert den Index des ersten Eintrags am oder nach date.
+         */
+        private int indexOf(LocalDate date) {
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries[middle].getDate().isBefore(date)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
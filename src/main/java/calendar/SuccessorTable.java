@@ -0,0 +1,178 @@
+package calendar;
+
+import holiday.Holiday;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Vorberechnete Nachfolger für HolidayManager.getNext in den Jahren fromYear bis toYear.
+ * Alle Termine aller Feiertage ab dem 1.1. von fromYear bis ein Jahr nach toYear liegen in einer einzigen,
+ * wie die Ausgabe des Managers sortierten Folge, danach folgt je Feiertag noch sein nächster späterer Termin.
+ * Zu jedem Termin ist der Tag des vorherigen Termins desselben Feiertags gespeichert. Ein Termin ist genau dann
+ * der nächste seines Feiertags nach dem Tag D, wenn sein Vorgänger nicht nach D und er selbst nach D liegt.
+ *
+ * Je Tag D sind der Rang des ersten Termins nach D, das Ende des Bereichs mit allen nächsten Terminen und
+ * deren Anzahl gespeichert. getNext(D) durchläuft diesen Bereich einmal und liefert die nächsten Termine bereits
+ * sortiert, ohne einen Feiertag auszuwerten. getNext(D, n) ist ein Ausschnitt der Folge.
+ * Instanzen sind unveränderlich und threadsicher.
+ */
+final class SuccessorTable {
+
+    private final long firstDay;
+    private final long lastDay;
+    //Termine: Tag, Feiertag und Tag des vorherigen Termins desselben Feiertags (Long.MIN_VALUE, falls keiner)
+    private final long[] days;
+    private final Holiday[] holidays;
+    private final long[] previousDays;
+    //Anzahl der Termine bis einschließlich lastDay + 1 Jahr, danach folgen nur noch einzelne spätere Termine
+    private final int denseCount;
+    //je Tag firstDay + i: erster Rang nach dem Tag, Ende des Bereichs der nächsten Termine und deren Anzahl
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] counts;
+
+    private SuccessorTable(int fromYear, int toYear, long[] days, Holiday[] holidays, long[] previousDays, int denseCount) {
+        this.firstDay = LocalDate.of(fromYear, 1, 1).toEpochDay();
+        this.lastDay = LocalDate.of(toYear, 12, 31).toEpochDay();
+        this.days = days;
+        this.holidays = holidays;
+        this.previousDays = previousDays;
+        this.denseCount = denseCount;
+        int size = (int) (lastDay - firstDay + 1);
+        this.starts = new int[size];
+        this.ends = new int[size];
+        this.counts = new int[size + 1];
+        int rank = 0;
+        for (int day = 0; day < size; day++) {
+            while (rank < days.length && days[rank] <= firstDay + day) {
+                rank++;
+            }
+            starts[day] = rank;
+        }
+        //Der Termin i ist der nächste für alle Tage von seinem Vorgänger bis zum Tag vor ihm,
+        //in aufsteigender Reihenfolge überschrieben bleibt je Tag das Ende des Bereichs stehen
+        for (int i = 0; i < days.length; i++) {
+            long from = Math.max(previousDays[i], firstDay);
+            long to = Math.min(days[i], lastDay + 1);
+            if (from < to) {
+                Arrays.fill(ends, (int) (from - firstDay), (int) (to - firstDay), i + 1);
+                counts[(int) (from - firstDay)]++;
+                counts[(int) (to - firstDay)]--;
+            }
+        }
+        for (int day = 1; day <= size; day++) {
+            counts[day] += counts[day - 1];
+        }
+    }
+
+    boolean covers(LocalDate reference) {
+        long day = reference.toEpochDay();
+        return day >= firstDay && day <= lastDay;
+    }
+
+    /**
+     * @return Liefert zu jedem Feiertag den nächsten Termin nach reference, sortiert wie HolidayManager.getNext.
+     */
+    List<CalendarEntry> next(LocalDate reference) {
+        long day = reference.toEpochDay();
+        int index = (int) (day - firstDay);
+        List<CalendarEntry> result = new ArrayList<>(counts[index]);
+        for (int i = starts[index], end = ends[index]; i < end; i++) {
+            if (previousDays[i] <= day) {
+                result.add(new CalendarEntry(LocalDate.ofEpochDay(days[i]), holidays[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Liefert die nächsten n Termine nach reference, sortiert wie HolidayManager.getNext,
+     * bzw. null, falls sie über den vollständig berechneten Bereich hinausreichen.
+     */
+    List<CalendarEntry> next(LocalDate reference, int n) {
+        int start = starts[(int) (reference.toEpochDay() - firstDay)];
+        if (start + n > denseCount) {
+            return null;
+        }
+        List<CalendarEntry> result = new ArrayList<>(n);
+        for (int i = start; i < start + n; i++) {
+            result.add(new CalendarEntry(LocalDate.ofEpochDay(days[i]), holidays[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Sammelt die Termine der Feiertage. Termine eines Feiertags müssen aufsteigend übergeben werden,
+     * ein Feiertag wird über seine Nummer im Manager identifiziert.
+     */
+    static final class Builder {
+
+        private final List<Holiday> managed;
+        private final Comparator<Holiday> byName = Comparator.comparing(Holiday::toString);
+        private long[] days = new long[1024];
+        private int[] ids = new int[1024];
+        private long[] previousDays = new long[1024];
+        private int size;
+
+        /**
+         * @param managed sind die Feiertage des Managers, der Index ist die Nummer eines Feiertags
+         */
+        Builder(List<Holiday> managed) {
+            this.managed = managed;
+        }
+
+        /**
+         * Nimmt einen Termin auf.
+         * @param previousDay ist der vorherige Termin desselben Feiertags oder Long.MIN_VALUE
+         */
+        void add(long day, int id, long previousDay) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+                previousDays = Arrays.copyOf(previousDays, size * 2);
+            }
+            days[size] = day;
+            ids[size] = id;
+            previousDays[size] = previousDay;
+            size++;
+        }
+
+        /**
+         * @return Liefert die Nachfolger für die Jahre fromYear bis toYear. Die Termine müssen bis ein Jahr nach toYear
+         * vollständig sein, danach genügt je Feiertag der nächste spätere Termin.
+         */
+        SuccessorTable build(int fromYear, int toYear) {
+            long horizon = LocalDate.of(toYear, 12, 31).plusYears(1).toEpochDay();
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            //wie HolidayManager: nach Datum, dann nach Namen, bei gleichem Namen in der Reihenfolge des Managers
+            Arrays.sort(order, (a, b) -> {
+                int compare = Long.compare(days[a], days[b]);
+                if (compare == 0) {
+                    compare = byName.compare(managed.get(ids[a]), managed.get(ids[b]));
+                }
+                return compare != 0 ? compare : Integer.compare(ids[a], ids[b]);
+            });
+            long[] sortedDays = new long[size];
+            Holiday[] sortedHolidays = new Holiday[size];
+            long[] sortedPrevious = new long[size];
+            int dense = 0;
+            for (int i = 0; i < size; i++) {
+                int j = order[i];
+                sortedDays[i] = days[j];
+                sortedHolidays[i] = managed.get(ids[j]);
+                sortedPrevious[i] = previousDays[j];
+                if (days[j] <= horizon) {
+                    dense = i + 1;
+                }
+            }
+            return new SuccessorTable(fromYear, toYear, sortedDays, sortedHolidays, sortedPrevious, dense);
+        }
+    }
+}
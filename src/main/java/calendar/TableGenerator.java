@@ -0,0 +1,81 @@
+package calendar;
+
+import holiday.Holiday;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Erzeugt zur Build-Zeit die Tabellen der Samples aus HolidayStock, die PrecomputedTable zur Laufzeit lädt.
+ * Wird im Maven-Profil "precompute" nach dem Kompilieren ausgeführt:
+ *
+ * <pre>
+ * mvn -Pprecompute package [-Dholidays.table.from=1900] [-Dholidays.table.to=2100]
+ * </pre>
+ * Aufruf: calendar.TableGenerator zielverzeichnis [von bis]
+ */
+public final class TableGenerator {
+
+    static final int MAGIC = 0x48544232; //"HTB2"
+    static final String[] SAMPLES = {"A", "B", "C"};
+
+    private TableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Aufruf: calendar.TableGenerator zielverzeichnis [von bis]");
+            System.exit(2);
+            return;
+        }
+        int from = args.length == 3 ? Integer.parseInt(args[1]) : PrecomputedTable.DEFAULT_FROM;
+        int to = args.length == 3 ? Integer.parseInt(args[2]) : PrecomputedTable.DEFAULT_TO;
+        if (to < from || from <= 0) {
+            throw new IllegalArgumentException("ungültiges Jahresfenster " + from + " - " + to);
+        }
+        for (String sample : SAMPLES) {
+            Path target = Paths.get(args[0]).resolve(PrecomputedTable.resourceName(sample));
+            Files.createDirectories(target.getParent());
+            write(HolidayStock.sample(sample), from, to, target);
+            System.out.println("Feiertagstabelle " + target + " (" + from + " - " + to + ")");
+        }
+    }
+
+    /**
+     * Format (DataOutput): MAGIC, von, bis, Anzahl Feiertage, je Feiertag Name und Fingerabdruck (siehe Holiday.fingerprint()),
+     * dann je Jahr die Anzahl der Einträge
+     * und je Eintrag Index des Feiertags und Tag im Jahr (jeweils short), in der Reihenfolge des HolidayManagers.
+     */
+    static void write(List<Holiday> holidays, int from, int to, Path target) throws IOException {
+        HolidayManager manager = new HolidayManager(holidays);
+        Map<Holiday, Integer> indices = new HashMap<>();
+        for (int i = 0; i < holidays.size(); i++) {
+            indices.putIfAbsent(holidays.get(i), i);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(from);
+            out.writeInt(to);
+            out.writeInt(holidays.size());
+            for (Holiday holiday : holidays) {
+                out.writeUTF(holiday.getName());
+                out.writeLong(holiday.fingerprint());
+            }
+            for (int year = from; year <= to; year++) {
+                List<CalendarEntry> entries = manager.calendarSheet(year);
+                out.writeInt(entries.size());
+                for (CalendarEntry entry : entries) {
+                    out.writeShort(indices.get(entry.getHoliday()));
+                    out.writeShort(entry.getDate().getDayOfYear());
+                }
+            }
+        }
+    }
+}
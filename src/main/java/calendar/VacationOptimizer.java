@@ -0,0 +1,224 @@
+package calendar;
+
+import holiday.Holiday;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Die Klasse VacationOptimizer beantwortet die Frage "Welche Urlaubstage muss ich in einem Jahr nehmen,
+ * um mit N Urlaubstagen möglichst lange am Stück frei zu haben?".
+ * Die Lage der freien Tage (Wochenenden und Feiertage) eines Jahres wird einmalig im Konstruktor berechnet,
+ * jede weitere Anfrage benötigt anschließend nur noch Zeit linear in der Anzahl der Tage des Jahres.
+ * Zeiträume werden nicht über die Jahresgrenze hinweg betrachtet.
+ */
+public final class VacationOptimizer {
+
+    /**
+     * Die bundesweiten gesetzlichen Feiertage (Namen wie in HolidayStock). Nur sie gelten standardmäßig als arbeitsfrei,
+     * Gedenk- und Aktionstage wie Valentinstag oder Halloween, Mondphasen und Brückentage dagegen nicht.
+     */
+    static final Set<String> PUBLIC_HOLIDAYS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "New Year's Day", "Good Friday", "Easter Monday", "Labor Day", "Ascension Day", "Whit Monday",
+            "German Unity Day", "Christmas Day", "St. Stephen's Day")));
+
+    private final int year;
+    private final LocalDate firstDay;
+    private final boolean[] dayOff;
+    //workdaysBefore[i] ist die Anzahl der Arbeitstage vor dem i-ten Tag des Jahres (0-basiert)
+    private final int[] workdaysBefore;
+
+    /**
+     * Erstellt einen VacationOptimizer, bei dem die bundesweiten gesetzlichen Feiertage (PUBLIC_HOLIDAYS) als frei gelten.
+     * @param manager liefert die Feiertage
+     * @param year ist das betrachtete Jahr
+     */
+    public VacationOptimizer(HolidayManager manager, int year) {
+        this(manager, year, VacationOptimizer::isDayOff);
+    }
+
+    /**
+     * @param manager liefert die Feiertage
+     * @param year ist das betrachtete Jahr
+     * @param countsAsDayOff entscheidet, welche Feiertage des Managers arbeitsfrei sind
+     */
+    public VacationOptimizer(HolidayManager manager, int year, Predicate<Holiday> countsAsDayOff) {
+        if (manager == null || countsAsDayOff == null) {
+            throw new NullPointerException("manager oder countsAsDayOff war null");
+        }
+        this.year = year;
+        this.firstDay = LocalDate.of(year, 1, 1);
+        int length = firstDay.lengthOfYear();
+        this.dayOff = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            DayOfWeek dayOfWeek = firstDay.plusDays(i).getDayOfWeek();
+            dayOff[i] = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+        }
+        for (CalendarEntry entry : manager.calendarSheet(year)) {
+            if (countsAsDayOff.test(entry.getHoliday())) {
+                dayOff[entry.getDate().getDayOfYear() - 1] = true;
+            }
+        }
+        this.workdaysBefore = new int[length + 1];
+        for (int i = 0; i < length; i++) {
+            workdaysBefore[i + 1] = workdaysBefore[i] + (dayOff[i] ? 0 : 1);
+        }
+    }
+
+    /**
+     * @param holiday ist der zu prüfende Feiertag
+     * @return wahr, falls der Feiertag standardmäßig als arbeitsfrei gilt, siehe PUBLIC_HOLIDAYS
+     */
+    static boolean isDayOff(Holiday holiday) {
+        return PUBLIC_HOLIDAYS.contains(holiday.getName());
+    }
+
+    /**
+     * @param names sind die Namen der arbeitsfreien Feiertage, z.B. regionale Feiertage wie "Corpus Christi"
+     * @return Liefert eine Auswahl, die genau die Feiertage mit diesen Namen als arbeitsfrei ansieht.
+     */
+    public static Predicate<Holiday> nonWorking(String... names) {
+        Set<String> set = new HashSet<>(Arrays.asList(names));
+        return holiday -> set.contains(holiday.getName());
+    }
+
+    /**
+     * @return Liefert das betrachtete Jahr.
+     */
+    public int getYear() {
+        return this.year;
+    }
+
+    /**
+     * @return Liefert die Anzahl der Arbeitstage des Jahres.
+     */
+    public int getWorkdays() {
+        return workdaysBefore[dayOff.length];
+    }
+
+    /**
+     * Sucht mit einem gleitenden Fenster den längsten Zeitraum, der höchstens leaveDays Arbeitstage enthält.
+     * Bei gleicher Länge wird der früheste Zeitraum gewählt. Alle Urlaubstage fließen in diesen einen Zeitraum,
+     * eine Aufteilung des Budgets auf mehrere Zeiträume (z.B. Ostern und Weihnachten) wird nicht gesucht.
+     * @param leaveDays ist die Anzahl verfügbarer Urlaubstage
+     * @return Liefert die zu nehmenden Urlaubstage und die sich ergebenden freien Zeiträume des Jahres.
+     * Ist leaveDays negativ, wird eine IllegalArgumentException geworfen.
+     */
+    public Plan optimize(int leaveDays) {
+        if (leaveDays < 0) {
+            throw new IllegalArgumentException("leaveDays war negativ");
+        }
+        int bestStart = 0;
+        int bestLength = 0;
+        int start = 0;
+        for (int end = 0; end < dayOff.length; end++) {
+            while (workdaysBefore[end + 1] - workdaysBefore[start] > leaveDays) {
+                start++;
+            }
+            if (end - start + 1 > bestLength) {
+                bestLength = end - start + 1;
+                bestStart = start;
+            }
+        }
+        List<LocalDate> chosen = new ArrayList<>(Math.min(leaveDays, getWorkdays()));
+        for (int i = bestStart; i < bestStart + bestLength; i++) {
+            if (!dayOff[i]) {
+                chosen.add(firstDay.plusDays(i));
+            }
+        }
+        List<Block> blocks = new ArrayList<>();
+        int blockStart = -1;
+        for (int i = 0; i <= dayOff.length; i++) {
+            boolean free = i < dayOff.length && (dayOff[i] || (i >= bestStart && i < bestStart + bestLength));
+            if (free && blockStart < 0) {
+                blockStart = i;
+            } else if (!free && blockStart >= 0) {
+                blocks.add(new Block(firstDay.plusDays(blockStart), firstDay.plusDays(i - 1)));
+                blockStart = -1;
+            }
+        }
+        Block longest = bestLength == 0 ? null : new Block(firstDay.plusDays(bestStart), firstDay.plusDays(bestStart + bestLength - 1));
+        return new Plan(chosen, blocks, longest);
+    }
+
+    /**
+     * Ergebnis einer Anfrage an den VacationOptimizer.
+     */
+    public static final class Plan {
+
+        private final List<LocalDate> leaveDays;
+        private final List<Block> blocks;
+        private final Block longestBlock;
+
+        private Plan(List<LocalDate> leaveDays, List<Block> blocks, Block longestBlock) {
+            this.leaveDays = Collections.unmodifiableList(leaveDays);
+            this.blocks = Collections.unmodifiableList(blocks);
+            this.longestBlock = longestBlock;
+        }
+
+        /**
+         * @return Liefert die zu nehmenden Urlaubstage, aufsteigend sortiert.
+         */
+        public List<LocalDate> getLeaveDays() {
+            return leaveDays;
+        }
+
+        /**
+         * @return Liefert alle zusammenhängenden freien Zeiträume des Jahres unter Berücksichtigung der Urlaubstage, aufsteigend sortiert.
+         */
+        public List<Block> getBlocks() {
+            return blocks;
+        }
+
+        /**
+         * @return Liefert den längsten freien Zeitraum, bzw. null falls das Jahr keinen freien Tag enthält.
+         */
+        public Block getLongestBlock() {
+            return longestBlock;
+        }
+
+        public String toString() {
+            return String.format("leave=%s, longest=%s", leaveDays, longestBlock);
+        }
+    }
+
+    /**
+     * Ein zusammenhängender freier Zeitraum von from bis to (jeweils inklusive).
+     */
+    public static final class Block {
+
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private Block(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public LocalDate getFrom() {
+            return from;
+        }
+
+        public LocalDate getTo() {
+            return to;
+        }
+
+        /**
+         * @return Liefert die Anzahl der Tage des Zeitraums.
+         */
+        public int length() {
+            return (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        }
+
+        public String toString() {
+            return String.format("%s..%s (%d)", from, to, length());
+        }
+    }
+}
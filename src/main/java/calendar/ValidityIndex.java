@@ -0,0 +1,128 @@
+package calendar;
+
+import holiday.ValidHoliday;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Intervall-Index über die Gültigkeitsjahre der nicht fixierten Feiertage eines HolidayManagers.
+ * Feiertage ohne Einschränkung stehen in einer einfachen Liste. Eingeschränkte Feiertage sind nach ihrem ersten Jahr
+ * sortiert und bilden einen impliziten, balancierten Suchbaum, in dem jeder Knoten das größte letzte Jahr
+ * seines Teilbaums kennt. Eine Abfrage überspringt damit ganze Teilbäume, deren Feiertage vor dem abgefragten
+ * Zeitraum enden oder danach beginnen, und kostet O(log n + k) für k gültige Feiertage.
+ * Neue eingeschränkte Feiertage werden nur angehängt, sortiert und aufgebaut wird der Suchbaum einmalig bei der
+ * ersten Abfrage danach. Der Aufbau von n Feiertagen kostet damit O(n log n) statt O(n²).
+ * Die Klasse ist nicht threadsicher, Abfragen dürfen aber gleichzeitig laufen, solange nichts hinzugefügt wird.
+ */
+final class ValidityIndex {
+
+    private int[] always = new int[8];
+    private int alwaysCount;
+
+    //eingeschränkte Feiertage, nach firstYears sortiert, sobald sorted gesetzt ist
+    private int[] ids = new int[8];
+    private int[] firstYears = new int[8];
+    private int[] lastYears = new int[8];
+    private int size;
+    //maxLastYears[m] ist das größte letzte Jahr im Teilbaum mit der Wurzel m
+    private int[] maxLastYears = new int[0];
+    private volatile boolean sorted = true;
+
+    /**
+     * Nimmt den Feiertag mit der angegebenen Nummer auf, der in den Jahren firstYear bis lastYear gilt.
+     * Eingeschränkte Feiertage werden angehängt, der Suchbaum wird erst bei der nächsten Abfrage neu aufgebaut.
+     */
+    void add(int id, int firstYear, int lastYear) {
+        if (firstYear == ValidHoliday.NO_START && lastYear == ValidHoliday.NO_END) {
+            if (alwaysCount == always.length) {
+                always = Arrays.copyOf(always, alwaysCount * 2);
+            }
+            always[alwaysCount++] = id;
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(8, size * 2));
+            firstYears = Arrays.copyOf(firstYears, Math.max(8, size * 2));
+            lastYears = Arrays.copyOf(lastYears, Math.max(8, size * 2));
+        }
+        ids[size] = id;
+        firstYears[size] = firstYear;
+        lastYears[size] = lastYear;
+        size++;
+        sorted = false;
+    }
+
+    /**
+     * Liefert die Nummern aller Feiertage, die in mindestens einem der Jahre firstYear bis lastYear gelten.
+     * Zuerst kommen die uneingeschränkten Feiertage in der Reihenfolge ihrer Aufnahme, danach die eingeschränkten.
+     */
+    void forEachActive(int firstYear, int lastYear, IntConsumer action) {
+        for (int i = 0; i < alwaysCount; i++) {
+            action.accept(always[i]);
+        }
+        if (!sorted) {
+            sort();
+        }
+        search(0, size, firstYear, lastYear, action);
+    }
+
+    /**
+     * Sortiert die eingeschränkten Feiertage nach ihrem ersten Jahr, bei gleichem ersten Jahr in der Reihenfolge
+     * ihrer Aufnahme, und baut den Suchbaum auf. Gleichzeitige Abfragen warten, bis der erste Aufruf fertig ist.
+     */
+    private synchronized void sort() {
+        if (sorted) {
+            return;
+        }
+        //erstes Jahr in den oberen 32 Bit, die bisherige Position in den unteren, damit die Sortierung stabil ist
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) firstYears[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] sortedIds = new int[size];
+        int[] sortedFirstYears = new int[size];
+        int[] sortedLastYears = new int[size];
+        for (int i = 0; i < size; i++) {
+            int position = (int) keys[i];
+            sortedIds[i] = ids[position];
+            sortedFirstYears[i] = firstYears[position];
+            sortedLastYears[i] = lastYears[position];
+        }
+        ids = sortedIds;
+        firstYears = sortedFirstYears;
+        lastYears = sortedLastYears;
+        maxLastYears = new int[size];
+        build(0, size);
+        sorted = true;
+    }
+
+    private void search(int low, int high, int firstYear, int lastYear, IntConsumer action) {
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxLastYears[middle] < firstYear) {
+                return;
+            }
+            search(low, middle, firstYear, lastYear, action);
+            //Rechts beginnen alle Feiertage frühestens mit firstYears[middle]
+            if (firstYears[middle] > lastYear) {
+                return;
+            }
+            if (lastYears[middle] >= firstYear) {
+                action.accept(ids[middle]);
+            }
+            low = middle + 1;
+        }
+    }
+
+    private int build(int low, int high) {
+        if (low >= high) {
+            return Integer.MIN_VALUE;
+        }
+        int middle = (low + high) >>> 1;
+        int max = Math.max(lastYears[middle], Math.max(build(low, middle), build(middle + 1, high)));
+        maxLastYears[middle] = max;
+        return max;
+    }
+}
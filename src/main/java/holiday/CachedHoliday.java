@@ -0,0 +1,275 @@
+package holiday;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Die Klasse CachedHoliday dekoriert einen beliebigen Feiertag und merkt sich dessen Ergebnisse
+ * ("nächster Termin nach Datum X") in einem begrenzten, nebenläufig nutzbaren Zwischenspeicher.
+ * Schlüssel ist der Epoch Day des übergebenen Datums, der Speicher ist in Segmente mit jeweils eigener Sperre aufgeteilt.
+ * Name und Termine werden vom dekorierten Feiertag übernommen, sodass sich durch das Dekorieren
+ * ausschließlich die Geschwindigkeit ändert. Gleich ist ein CachedHoliday nur einem anderen CachedHoliday,
+ * der einen gleichen Feiertag dekoriert, damit equals symmetrisch bleibt.
+ */
+public final class CachedHoliday implements Holiday {
+
+    /**
+     * Verdrängungsstrategie eines vollen Segments.
+     */
+    public enum Eviction {
+        /** Der am längsten nicht mehr gelesene Eintrag wird verdrängt. */
+        LRU,
+        /** Der am längsten gespeicherte Eintrag wird verdrängt. */
+        FIFO
+    }
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    //Platzhalter für Feiertage, deren adjustInto null liefert (z.B. FourDayWeekend ohne Brückentag)
+    private static final long NO_RESULT = Long.MIN_VALUE;
+
+    private final Holiday holiday;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int maximumSize;
+    private final Eviction eviction;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Erstellt einen CachedHoliday mit Standardgröße, Standard-Segmentanzahl und LRU-Verdrängung.
+     * @param holiday ist der zu dekorierende Feiertag
+     */
+    public CachedHoliday(Holiday holiday) {
+        this(holiday, DEFAULT_MAXIMUM_SIZE, DEFAULT_CONCURRENCY_LEVEL, Eviction.LRU);
+    }
+
+    /**
+     * @param holiday ist der zu dekorierende Feiertag
+     * @param maximumSize ist die maximale Anzahl gespeicherter Ergebnisse über alle Segmente
+     * @param concurrencyLevel ist die gewünschte Anzahl an Segmenten, wird auf die nächste Zweierpotenz aufgerundet
+     * @param eviction ist die Verdrängungsstrategie eines vollen Segments
+     */
+    public CachedHoliday(Holiday holiday, int maximumSize, int concurrencyLevel, Eviction eviction) {
+        if (holiday == null || eviction == null) {
+            throw new NullPointerException("holiday oder eviction war null");
+        }
+        if (maximumSize <= 0 || concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("maximumSize und concurrencyLevel müssen positiv sein");
+        }
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount < maximumSize) {
+            segmentCount <<= 1;
+        }
+        int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+        this.holiday = holiday;
+        this.maximumSize = maximumSize;
+        this.eviction = eviction;
+        this.segmentMask = segmentCount - 1;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(segmentCapacity, eviction == Eviction.LRU, this.evictions);
+        }
+    }
+
+    /**
+     * @return Liefert den dekorierten Feiertag.
+     */
+    public Holiday getHoliday() {
+        return this.holiday;
+    }
+
+    @Override
+    public String getName() {
+        return this.holiday.getName();
+    }
+
+    /**
+     * @return Liefert den Fingerabdruck des dekorierten Feiertags, der Zwischenspeicher ändert keinen Termin.
+     */
+    @Override
+    public long fingerprint() {
+        return holiday.fingerprint();
+    }
+
+    /**
+     * Liefert den nächsten Termin des dekorierten Feiertags, nach Möglichkeit aus dem Zwischenspeicher.
+     * Temporals mit Uhrzeit (z.B. LocalDateTime bei Mondphasen) werden nicht zwischengespeichert,
+     * da das Ergebnis dort genauer als ein Tag sein kann.
+     * @param temporal ein beliebiges Temporal Objekt
+     * @return ein verändertes Temporal Objekt, mit dem nächsten Termin des dekorierten Feiertags
+     */
+    @Override
+    public Temporal adjustInto(Temporal temporal) {
+        if (!temporal.isSupported(ChronoField.EPOCH_DAY) || temporal.isSupported(ChronoField.HOUR_OF_DAY)) {
+            return temporal.with(this.holiday);
+        }
+        long key = temporal.getLong(ChronoField.EPOCH_DAY);
+        Segment segment = segmentFor(key);
+        Long cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached == NO_RESULT ? null : temporal.with(ChronoField.EPOCH_DAY, cached);
+        }
+        misses.increment();
+        Temporal result = temporal.with(this.holiday);
+        long value = result == null ? NO_RESULT : result.getLong(ChronoField.EPOCH_DAY);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+        return result;
+    }
+
+    /**
+     * Der vorherige Termin wird nicht zwischengespeichert, sondern direkt beim dekorierten Feiertag erfragt.
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        return this.holiday.previous(date);
+    }
+
+    /**
+     * @return Liefert die Anzahl der aus dem Zwischenspeicher beantworteten Anfragen.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Liefert die Anzahl der Anfragen, die an den dekorierten Feiertag weitergereicht wurden.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Liefert die Anzahl der wegen Platzmangels verdrängten Einträge.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Liefert den Anteil der Treffer an allen Anfragen, bzw. 0 falls noch keine Anfrage erfolgte.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return Liefert die aktuelle Anzahl gespeicherter Ergebnisse.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Liefert die maximale Anzahl gespeicherter Ergebnisse.
+     */
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * @return Liefert die Verdrängungsstrategie.
+     */
+    public Eviction getEviction() {
+        return this.eviction;
+    }
+
+    /**
+     * Ein HolidayManager beginnt die Suche nach den Terminen eines Jahres oder Monats am 31.12. des Vorjahres.
+     * @return Liefert die Jahre, für deren 31.12. des Vorjahres ein Ergebnis im Zwischenspeicher liegt, aufsteigend sortiert.
+     */
+    public SortedSet<Integer> getCachedYears() {
+        SortedSet<Integer> years = new TreeSet<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (long epochDay : segment.keySet()) {
+                    LocalDate next = LocalDate.ofEpochDay(epochDay + 1);
+                    if (next.getDayOfYear() == 1) {
+                        years.add(next.getYear());
+                    }
+                }
+            }
+        }
+        return years;
+    }
+
+    /**
+     * Leert den Zwischenspeicher. Die Statistik bleibt erhalten.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment segmentFor(long key) {
+        int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    public String toString() {
+        return this.holiday.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) return true;
+        return other instanceof CachedHoliday && this.holiday.equals(((CachedHoliday) other).holiday);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.holiday.hashCode();
+    }
+
+    /**
+     * Ein Segment des Zwischenspeichers, das über sich selbst synchronisiert wird.
+     */
+    private static final class Segment extends LinkedHashMap<Long, Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, boolean accessOrder, LongAdder evictions) {
+            super(16, 0.75f, accessOrder);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
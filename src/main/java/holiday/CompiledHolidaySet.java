@@ -0,0 +1,165 @@
+package holiday;
+
+import java.time.LocalDate;
+
+/**
+ * Die Klasse CompiledHolidaySet ist eine von HolidayCompiler übersetzte Menge von Feiertagen.
+ * Jede Regel besteht aus ihrer Art und bis zu drei ganzzahligen Parametern, die in parallelen Arrays liegen.
+ * Die Termine eines Jahres werden in einer einzigen Schleife ohne virtuelle Aufrufe und ohne Objekte
+ * berechnet, was dem JIT-Compiler vollständiges Inlining erlaubt.
+ * Regeln unbekannter Art werden wie im HolidayManager durch wiederholtes Anwenden des Feiertags ausgewertet,
+ * die Ergebnisse stimmen daher in jedem Fall mit denen des HolidayManagers überein.
+ */
+public final class CompiledHolidaySet {
+
+    /**
+     * Empfänger der Termine eines Jahres.
+     */
+    @FunctionalInterface
+    public interface Occurrence {
+
+        /**
+         * @param rule ist der Index des Feiertags (siehe getHoliday())
+         * @param epochDay ist der Termin als Epoch Day
+         */
+        void accept(int rule, long epochDay);
+    }
+
+    //Arten von Regeln, die Bedeutung der Parameter a, b und c steht jeweils dahinter
+    static final int FIXED = 0;                   //Monat, Tag
+    static final int DAY_OF_WEEK_IN_MONTH = 1;    //Monat, Wochentag (0 = Montag), n
+    static final int DAY_OF_WEEK_BEFORE_DATE = 2; //Monat, Wochentag (0 = Montag), Tag
+    static final int DAY_OF_YEAR = 3;             //Tag im Jahr
+    static final int EASTER_SUNDAY = 4;
+    static final int ADVENT = 5;
+    static final int FEBRUARY_29 = 6;
+    static final int DEPENDENT = 7;               //Regel des Ankers, Verschiebung in Tagen
+    static final int WALK = 8;
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final Holiday[] holidays;
+    private final int[] kinds;
+    private final int[] a;
+    private final int[] b;
+    private final int[] c;
+
+    CompiledHolidaySet(Holiday[] holidays, int[] kinds, int[] a, int[] b, int[] c) {
+        this.holidays = holidays;
+        this.kinds = kinds;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+    }
+
+    /**
+     * @return Liefert die Anzahl der Feiertage.
+     */
+    public int size() {
+        return holidays.length;
+    }
+
+    /**
+     * @param rule ist der Index eines Feiertags
+     * @return Liefert den Feiertag zum Index, die Reihenfolge entspricht der an HolidayCompiler übergebenen.
+     */
+    public Holiday getHoliday(int rule) {
+        return holidays[rule];
+    }
+
+    /**
+     * @return Liefert die Anzahl der Feiertage, die nicht übersetzt werden konnten und über adjustInto ausgewertet werden.
+     */
+    public int getFallbackCount() {
+        int count = 0;
+        for (int i = 0; i < holidays.length; i++) {
+            if (kinds[i] == WALK) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Liefert alle Termine aller Feiertage im angegebenen Jahr, geordnet nach Feiertag und innerhalb eines Feiertags nach Datum.
+     * @param year ist das Jahr
+     * @param occurrence empfängt die Termine
+     */
+    public void forEachInYear(int year, Occurrence occurrence) {
+        long first = EpochDays.of(year, 1, 1);
+        long end = EpochDays.of(year + 1, 1, 1);
+        for (int rule = 0; rule < holidays.length; rule++) {
+            int kind = kinds[rule];
+            if (kind == DEPENDENT) {
+                //Der Anker kann im Vorjahr, im Jahr selbst oder im Folgejahr liegen
+                int anchor = a[rule];
+                for (int y = year - 1; y <= year + 1; y++) {
+                    long day = evaluate(anchor, y);
+                    if (day != NONE) {
+                        day += b[rule];
+                        if (day >= first && day < end) {
+                            occurrence.accept(rule, day);
+                        }
+                    }
+                }
+            } else if (kind == WALK) {
+                walk(rule, year, end, occurrence);
+            } else {
+                long day = evaluate(rule, year);
+                if (day != NONE) {
+                    occurrence.accept(rule, day);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param year ist das Jahr
+     * @return Liefert die Anzahl aller Termine im angegebenen Jahr.
+     */
+    public int count(int year) {
+        int[] count = new int[1];
+        forEachInYear(year, (rule, epochDay) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * @return Liefert den einzigen Termin einer übersetzten Regel (außer DEPENDENT und WALK) im Jahr oder NONE.
+     */
+    private long evaluate(int rule, int year) {
+        switch (kinds[rule]) {
+            case FIXED:
+                return EpochDays.of(year, a[rule], b[rule]);
+            case DAY_OF_WEEK_IN_MONTH: {
+                long first = EpochDays.of(year, a[rule], 1);
+                return first + Math.floorMod(b[rule] - EpochDays.dayOfWeek(first), 7) + 7 * (c[rule] - 1);
+            }
+            case DAY_OF_WEEK_BEFORE_DATE: {
+                long before = EpochDays.of(year, a[rule], c[rule] - 1);
+                return before - Math.floorMod(EpochDays.dayOfWeek(before) - b[rule], 7);
+            }
+            case DAY_OF_YEAR:
+                return EpochDays.of(year, 1, 1) + a[rule] - 1;
+            case EASTER_SUNDAY:
+                //Generators liefert den Ostersonntag als Tag im März (32 = 1. April)
+                return EpochDays.of(year, 3, 1) + Generators.calcEasterSunday(year) - 1;
+            case ADVENT: {
+                long christmasEve = EpochDays.of(year, 12, 24);
+                return christmasEve - Math.floorMod(EpochDays.dayOfWeek(christmasEve) - 6, 7) - 21;
+            }
+            case FEBRUARY_29:
+                return EpochDays.isLeapYear(year) ? EpochDays.of(year, 2, 29) : NONE;
+            default:
+                throw new IllegalStateException("Regel " + rule + " ist nicht übersetzt");
+        }
+    }
+
+    private void walk(int rule, int year, long end, Occurrence occurrence) {
+        Holiday holiday = holidays[rule];
+        LocalDate date = LocalDate.of(year, 1, 1).minusDays(1).with(holiday);
+        while (date != null && date.toEpochDay() < end) {
+            occurrence.accept(rule, date.toEpochDay());
+            date = date.with(holiday);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package holiday;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Die Klasse CycleTable enthält alle Termine eines periodischen Feiertags innerhalb eines 400-jährigen
+ * Gregorianischen Zyklus (siehe GregorianCycle). Termine beliebiger Jahre werden durch Falten des Datums
+ * in den Zyklus per Binärsuche bestimmt, unabhängig davon, wie weit sie in der Zukunft liegen.
+ * Instanzen sind unveränderlich und dürfen von mehreren Threads gleichzeitig genutzt werden.
+ */
+public final class CycleTable {
+
+    /**
+     * Wird von nextAfter geliefert, falls der Feiertag keinen Termin hat.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    //aufsteigend sortierte Tage seit Beginn des Zyklus, jeweils im Bereich [0, GregorianCycle.DAYS)
+    private final int[] offsets;
+
+    CycleTable(int[] offsets) {
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return Liefert die Anzahl der Termine innerhalb eines Zyklus.
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * @param epochDay ist das Ausgangsdatum als Epoch Day
+     * @return Liefert den ersten Termin echt nach dem Ausgangsdatum als Epoch Day, bzw. NONE falls es keinen gibt.
+     */
+    public long nextAfter(long epochDay) {
+        if (offsets.length == 0) {
+            return NONE;
+        }
+        long relative = epochDay - GregorianCycle.BASE_EPOCH_DAY;
+        long cycleStart = epochDay - Math.floorMod(relative, GregorianCycle.DAYS);
+        int index = indexAfter((int) (epochDay - cycleStart));
+        if (index == offsets.length) {
+            return cycleStart + GregorianCycle.DAYS + offsets[0];
+        }
+        return cycleStart + offsets[index];
+    }
+
+    /**
+     * @param epochDay ist das Ausgangsdatum als Epoch Day
+     * @return Liefert den letzten Termin echt vor dem Ausgangsdatum als Epoch Day, bzw. NONE falls es keinen gibt.
+     */
+    public long previousBefore(long epochDay) {
+        if (offsets.length == 0) {
+            return NONE;
+        }
+        long relative = epochDay - GregorianCycle.BASE_EPOCH_DAY;
+        long cycleStart = epochDay - Math.floorMod(relative, GregorianCycle.DAYS);
+        //erster Eintrag, der nicht vor dem Ausgangsdatum liegt, davor steht der gesuchte
+        int index = indexAfter((int) (epochDay - cycleStart) - 1);
+        if (index == 0) {
+            return cycleStart - GregorianCycle.DAYS + offsets[offsets.length - 1];
+        }
+        return cycleStart + offsets[index - 1];
+    }
+
+    /**
+     * Übergibt alle Termine im Bereich [from, to) aufsteigend an action.
+     * @param from ist der erste Tag (inklusive) als Epoch Day
+     * @param to ist der letzte Tag (exklusive) als Epoch Day
+     * @param action erhält die Termine als Epoch Day
+     */
+    public void forEachBetween(long from, long to, LongConsumer action) {
+        if (offsets.length == 0 || from >= to) {
+            return;
+        }
+        long cycleStart = from - Math.floorMod(from - GregorianCycle.BASE_EPOCH_DAY, GregorianCycle.DAYS);
+        int index = indexAfter((int) (from - cycleStart) - 1);
+        while (true) {
+            if (index == offsets.length) {
+                index = 0;
+                cycleStart += GregorianCycle.DAYS;
+            }
+            long day = cycleStart + offsets[index];
+            if (day >= to) {
+                return;
+            }
+            action.accept(day);
+            index++;
+        }
+    }
+
+    /**
+     * @return Liefert den Index des ersten Eintrags, der größer als offset ist, bzw. offsets.length.
+     */
+    private int indexAfter(int offset) {
+        int index = Arrays.binarySearch(offsets, offset);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
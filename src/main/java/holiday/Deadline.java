@@ -0,0 +1,112 @@
+package holiday;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Frist bzw. Abbruchsignal für die Auswertung von Feiertagen.
+ * Da adjustInto keine weiteren Parameter annimmt, wird die Frist mit call oder run für die Dauer der Aufgabe an den
+ * aktuellen Thread gebunden. Aufwendige Schleifen, z.B. die Suche in FourDayWeekend, die Berechnung von Zyklustabellen
+ * und die Abfragen des HolidayManagers, prüfen sie mit check() und brechen mit einer DeadlineExceededException ab,
+ * sobald die Frist abgelaufen oder cancel() aufgerufen worden ist. Ist keine Frist gebunden, kostet check() nur das
+ * Lesen einer ThreadLocal. Eine Frist kann von mehreren Threads verwendet und von jedem Thread abgebrochen werden.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    //Zeitpunkt im Sinne von System.nanoTime, falls timed
+    private final long expiry;
+    private final boolean timed;
+    private volatile boolean cancelled;
+
+    private Deadline(boolean timed, long expiry) {
+        this.timed = timed;
+        this.expiry = expiry;
+    }
+
+    /**
+     * @param timeout ist die verbleibende Zeit
+     * @return Liefert eine Frist, die nach timeout abläuft und zusätzlich abgebrochen werden kann.
+     */
+    public static Deadline after(Duration timeout) {
+        if (timeout == null) {
+            throw new NullPointerException();
+        }
+        return new Deadline(true, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return Liefert eine Frist ohne Zeitbegrenzung, die nur durch cancel() abläuft.
+     */
+    public static Deadline cancellable() {
+        return new Deadline(false, 0);
+    }
+
+    /**
+     * Bricht alle Auswertungen ab, die diese Frist beim nächsten check() prüfen.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return wahr, falls cancel() aufgerufen worden ist
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return wahr, falls die Frist abgelaufen oder abgebrochen ist
+     */
+    public boolean isExpired() {
+        return cancelled || timed && System.nanoTime() - expiry >= 0;
+    }
+
+    /**
+     * Führt task mit dieser Frist aus. Eine bereits gebundene Frist wird dabei ersetzt und danach wiederhergestellt.
+     * @return Liefert das Ergebnis von task.
+     * @throws DeadlineExceededException falls die Frist während der Ausführung abläuft
+     */
+    public <T> T call(Supplier<T> task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Führt task wie call mit dieser Frist aus.
+     */
+    public void run(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Prüft die an den aktuellen Thread gebundene Frist.
+     * @throws DeadlineExceededException falls sie abgelaufen oder abgebrochen ist
+     */
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(deadline.cancelled ? "Auswertung abgebrochen" : "Frist abgelaufen");
+        }
+    }
+}
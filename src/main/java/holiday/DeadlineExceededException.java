@@ -0,0 +1,13 @@
+package holiday;
+
+/**
+ * Wird geworfen, wenn eine Auswertung wegen einer abgelaufenen oder abgebrochenen Frist endet (siehe Deadline).
+ */
+public final class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -40,6 +40,30 @@ public final class DependentHoliday implements Holiday {
         return this.name;
     }
 
+    /**
+     * @return Liefert den Fingerabdruck aus Name, Anker und Verschiebung, bzw. Fingerprint.UNKNOWN, falls der Anker unbekannt ist.
+     */
+    @Override
+    public long fingerprint() {
+        long anchorFingerprint = anchor.fingerprint();
+        if (anchorFingerprint == Fingerprint.UNKNOWN) {
+            return Fingerprint.UNKNOWN;
+        }
+        return new Fingerprint("Dependent").add(name).add(anchorFingerprint)
+                .add(delta.getYears()).add(delta.getMonths()).add(delta.getDays()).value();
+    }
+
+    /**
+     * @return Liefert den Feiertag, von dem dieser abhängt.
+     */
+    public Holiday getAnchor() {
+        return this.anchor;
+    }
+
+    Period getDelta() {
+        return this.delta;
+    }
+
     /**
      * Die Methode wandelt das Parameter Temporal in eines um, das den nächsten Termin des jeweiligen Feiertags (Instanz dieser Klasse) wiedergibt.
      * @param temporal ein beliebiges Temporal Objekt
@@ -47,6 +71,14 @@ public final class DependentHoliday implements Holiday {
      */
     @Override
     public Temporal adjustInto(Temporal temporal) {
+        RuleEvaluationEvent event = RuleEvents.begin();
+        Temporal result = calculate(temporal);
+        //Der Anker wird je Auswertung zweimal befragt (mit und ohne Verschiebung um delta)
+        RuleEvents.complete(event, this, temporal, 2);
+        return result;
+    }
+
+    private Temporal calculate(Temporal temporal) {
         /*
         Hier wird vorausgesetzt, dass der im Konstruktor übergebene "anchor"
         den nächsten Termin des Referenzfeiertags nach dem übergebenen liefert.
@@ -99,6 +131,40 @@ public final class DependentHoliday implements Holiday {
         }throw new IllegalArgumentException();
     }
 
+    /**
+     * Der Termin ist der erste Termin des Ankers ab date - delta, verschoben um delta.
+     * Verschiebungen um Monate oder Jahre kürzen Monatsenden, date - delta + delta ist dann nicht immer date.
+     * In diesem Fall wird wie in Holiday.firstOnOrAfter gezählt.
+     */
+    @Override
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        if (delta.toTotalMonths() != 0) {
+            return Holiday.super.firstOnOrAfter(date);
+        }
+        LocalDate anchorDate = anchor.firstOnOrAfter(date.minus(delta));
+        if (anchorDate == null) {
+            return null;
+        }
+        return anchorDate.plus(delta);
+    }
+
+    /**
+     * Der Termin ist der letzte Termin des Ankers vor date - delta, verschoben um delta.
+     * Bei Verschiebungen um Monate oder Jahre wird wie in Holiday.previous gesucht, da sonst der letzte Termin
+     * übersprungen werden kann (Anker 28.2., delta ein Monat: vor dem 31.3. liegt der 28.3. desselben Jahres).
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        if (delta.toTotalMonths() != 0) {
+            return Holiday.super.previous(date);
+        }
+        LocalDate anchorDate = anchor.previous(date.minus(delta));
+        if (anchorDate == null) {
+            return null;
+        }
+        return anchorDate.plus(delta);
+    }
+
     public String toString() {
         return this.name;
     }
@@ -0,0 +1,276 @@
+package holiday;
+
+/**
+ * Umrechnung zwischen Gregorianischem und diskordianischem Kalender.
+ * Das diskordianische Jahr (YOLD, Year of Our Lady of Discord) ist das Gregorianische Jahr plus 1166 und beginnt
+ * ebenfalls am 1. Januar. Es besteht aus fünf Jahreszeiten zu je 73 Tagen und einer Woche aus fünf Tagen,
+ * die am 1. Januar mit Sweetmorn beginnt. Der 29. Februar ist St. Tib's Day und gehört weder zu einer Jahreszeit
+ * noch zu einer Woche.
+ *
+ * Ein diskordianisches Datum wird als gepackter int dargestellt (siehe yold(), season(), dayOfSeason() und weekday()).
+ * Jahreszeit, Tag und Wochentag stehen für jeden Tag eines Gemein- und eines Schaltjahres in vorberechneten Tabellen,
+ * je Datum bleibt also nur die Bestimmung des Jahres. Die Methoden für Arrays erzeugen keine Objekte und bestimmen
+ * das Jahr bei aufeinanderfolgenden Tagen desselben Jahres nur einmal.
+ */
+public final class DiscordianCalendar {
+
+    public static final int CHAOS = 0;
+    public static final int DISCORD = 1;
+    public static final int CONFUSION = 2;
+    public static final int BUREAUCRACY = 3;
+    public static final int THE_AFTERMATH = 4;
+    //Jahreszeit von St. Tib's Day, der Tag in der Jahreszeit ist dann 0
+    public static final int ST_TIBS_DAY = 5;
+    //Wochentag von St. Tib's Day
+    public static final int NO_WEEKDAY = 5;
+
+    public static final int DAYS_PER_SEASON = 73;
+    public static final int YOLD_OFFSET = 1166;
+    //Kleinstes und größtes darstellbares YOLD
+    public static final int MIN_YOLD = -(1 << 18);
+    public static final int MAX_YOLD = (1 << 18) - 1;
+
+    private static final String[] SEASON_NAMES = {"Chaos", "Discord", "Confusion", "Bureaucracy", "The Aftermath"};
+    private static final String[] WEEKDAY_NAMES = {"Sweetmorn", "Boomtime", "Pungenday", "Prickle-Prickle", "Setting Orange"};
+
+    //Aufbau des gepackten Datums: YOLD (19 Bit, mit Vorzeichen) | Jahreszeit (3 Bit) | Tag (7 Bit) | Wochentag (3 Bit)
+    private static final int DAY_SHIFT = 3;
+    private static final int SEASON_SHIFT = 10;
+    private static final int YOLD_SHIFT = 13;
+
+    //Index von St. Tib's Day im Schaltjahr (0 = 1. Januar)
+    private static final int ST_TIBS_INDEX = 59;
+
+    //Jahreszeit, Tag und Wochentag gepackt je Tag im Jahr (0 = 1. Januar)
+    private static final int[] COMMON_YEAR = new int[365];
+    private static final int[] LEAP_YEAR = new int[366];
+
+    static {
+        for (int index = 0; index < 365; index++) {
+            int packed = pack(0, index / DAYS_PER_SEASON, index % DAYS_PER_SEASON + 1, index % 5);
+            COMMON_YEAR[index] = packed;
+            LEAP_YEAR[index < ST_TIBS_INDEX ? index : index + 1] = packed;
+        }
+        LEAP_YEAR[ST_TIBS_INDEX] = pack(0, ST_TIBS_DAY, 0, NO_WEEKDAY);
+    }
+
+    private DiscordianCalendar() {
+    }
+
+    /**
+     * @param epochDay ist ein Tag als Epoch Day
+     * @return Liefert das gepackte diskordianische Datum.
+     * Liegt das Jahr außerhalb von MIN_YOLD bis MAX_YOLD, wird eine IllegalArgumentException geworfen.
+     */
+    public static int fromEpochDay(long epochDay) {
+        int year = EpochDays.year(epochDay);
+        int index = (int) (epochDay - EpochDays.of(year, 1, 1));
+        return yoldBits(year) | (EpochDays.isLeapYear(year) ? LEAP_YEAR : COMMON_YEAR)[index];
+    }
+
+    /**
+     * Rechnet alle Tage eines Arrays um, ohne Objekte zu erzeugen.
+     * @param epochDays sind die Tage als Epoch Days
+     * @param dates nimmt die gepackten diskordianischen Daten auf, muss mindestens so lang wie epochDays sein
+     */
+    public static void fromEpochDays(long[] epochDays, int[] dates) {
+        fromEpochDays(epochDays, 0, dates, 0, epochDays.length);
+    }
+
+    /**
+     * Rechnet length Tage ab epochDays[from] um und schreibt sie ab dates[to], ohne Objekte zu erzeugen.
+     */
+    public static void fromEpochDays(long[] epochDays, int from, int[] dates, int to, int length) {
+        checkRange(epochDays.length, from, dates.length, to, length);
+        //Grenzen und Tabelle des zuletzt bestimmten Jahres
+        long yearStart = 1;
+        long yearEnd = 0;
+        int yearBits = 0;
+        int[] table = COMMON_YEAR;
+        for (int i = 0; i < length; i++) {
+            long epochDay = epochDays[from + i];
+            if (epochDay < yearStart || epochDay >= yearEnd) {
+                int year = EpochDays.year(epochDay);
+                yearStart = EpochDays.of(year, 1, 1);
+                yearEnd = EpochDays.of(year + 1, 1, 1);
+                yearBits = yoldBits(year);
+                table = EpochDays.isLeapYear(year) ? LEAP_YEAR : COMMON_YEAR;
+            }
+            dates[to + i] = yearBits | table[(int) (epochDay - yearStart)];
+        }
+    }
+
+    /**
+     * @param date ist ein gepacktes diskordianisches Datum
+     * @return Liefert den Tag als Epoch Day.
+     */
+    public static long toEpochDay(int date) {
+        int year = yold(date) - YOLD_OFFSET;
+        long yearStart = EpochDays.of(year, 1, 1);
+        return yearStart + index(year, season(date), dayOfSeason(date));
+    }
+
+    /**
+     * Rechnet alle gepackten Daten eines Arrays in Epoch Days um, ohne Objekte zu erzeugen.
+     * @param dates sind die gepackten diskordianischen Daten
+     * @param epochDays nimmt die Tage auf, muss mindestens so lang wie dates sein
+     */
+    public static void toEpochDays(int[] dates, long[] epochDays) {
+        toEpochDays(dates, 0, epochDays, 0, dates.length);
+    }
+
+    /**
+     * Rechnet length gepackte Daten ab dates[from] um und schreibt sie ab epochDays[to], ohne Objekte zu erzeugen.
+     */
+    public static void toEpochDays(int[] dates, int from, long[] epochDays, int to, int length) {
+        checkRange(dates.length, from, epochDays.length, to, length);
+        int yold = 0;
+        long yearStart = 0;
+        boolean valid = false;
+        for (int i = 0; i < length; i++) {
+            int date = dates[from + i];
+            if (!valid || yold(date) != yold) {
+                yold = yold(date);
+                yearStart = EpochDays.of(yold - YOLD_OFFSET, 1, 1);
+                valid = true;
+            }
+            epochDays[to + i] = yearStart + index(yold - YOLD_OFFSET, season(date), dayOfSeason(date));
+        }
+    }
+
+    /**
+     * @param season ist eine Jahreszeit von CHAOS bis THE_AFTERMATH oder ST_TIBS_DAY
+     * @param dayOfSeason ist der Tag in der Jahreszeit von 1 bis 73, bei ST_TIBS_DAY 0
+     * @param epochDay ist ein Tag als Epoch Day
+     * @return Liefert den ersten Tag nach epochDay mit der angegebenen Jahreszeit und dem angegebenen Tag.
+     */
+    public static long next(int season, int dayOfSeason, long epochDay) {
+        int year = EpochDays.year(epochDay);
+        if (season == ST_TIBS_DAY) {
+            //Schaltjahre liegen höchstens acht Jahre auseinander
+            for (; ; year++) {
+                if (EpochDays.isLeapYear(year)) {
+                    long day = EpochDays.of(year, 1, 1) + ST_TIBS_INDEX;
+                    if (day > epochDay) {
+                        return day;
+                    }
+                }
+            }
+        }
+        long day = EpochDays.of(year, 1, 1) + index(year, season, dayOfSeason);
+        if (day > epochDay) {
+            return day;
+        }
+        return EpochDays.of(year + 1, 1, 1) + index(year + 1, season, dayOfSeason);
+    }
+
+    /**
+     * @param yold ist das diskordianische Jahr
+     * @param season ist eine Jahreszeit von CHAOS bis THE_AFTERMATH oder ST_TIBS_DAY
+     * @param dayOfSeason ist der Tag in der Jahreszeit von 1 bis 73, bei ST_TIBS_DAY 0
+     * @return Liefert das gepackte diskordianische Datum, der Wochentag wird ergänzt.
+     * Existiert das Datum nicht, wird eine IllegalArgumentException geworfen.
+     */
+    public static int of(int yold, int season, int dayOfSeason) {
+        if (yold < MIN_YOLD || yold > MAX_YOLD) {
+            throw new IllegalArgumentException("YOLD außerhalb des darstellbaren Bereichs: " + yold);
+        }
+        int year = yold - YOLD_OFFSET;
+        return yoldBits(year) | (EpochDays.isLeapYear(year) ? LEAP_YEAR : COMMON_YEAR)[index(year, season, dayOfSeason)];
+    }
+
+    /**
+     * @return Liefert das diskordianische Jahr eines gepackten Datums.
+     */
+    public static int yold(int date) {
+        return date >> YOLD_SHIFT;
+    }
+
+    /**
+     * @return Liefert die Jahreszeit eines gepackten Datums, CHAOS bis THE_AFTERMATH oder ST_TIBS_DAY.
+     */
+    public static int season(int date) {
+        return date >>> SEASON_SHIFT & 7;
+    }
+
+    /**
+     * @return Liefert den Tag in der Jahreszeit eines gepackten Datums von 1 bis 73, bzw. 0 an St. Tib's Day.
+     */
+    public static int dayOfSeason(int date) {
+        return date >>> DAY_SHIFT & 127;
+    }
+
+    /**
+     * @return Liefert den Wochentag eines gepackten Datums von 0 (Sweetmorn) bis 4 (Setting Orange),
+     * bzw. NO_WEEKDAY an St. Tib's Day.
+     */
+    public static int weekday(int date) {
+        return date & 7;
+    }
+
+    public static boolean isStTibsDay(int date) {
+        return season(date) == ST_TIBS_DAY;
+    }
+
+    /**
+     * @return Liefert den Namen einer Jahreszeit, z.B. "Chaos".
+     */
+    public static String seasonName(int season) {
+        if (season == ST_TIBS_DAY) {
+            return "St. Tib's Day";
+        }
+        return SEASON_NAMES[season];
+    }
+
+    /**
+     * @return Liefert den Namen eines Wochentags, z.B. "Sweetmorn".
+     */
+    public static String weekdayName(int weekday) {
+        return WEEKDAY_NAMES[weekday];
+    }
+
+    /**
+     * @return Liefert ein gepacktes Datum als Text, z.B. "Sweetmorn, Chaos 1, 3190 YOLD".
+     */
+    public static String format(int date) {
+        if (isStTibsDay(date)) {
+            return "St. Tib's Day, " + yold(date) + " YOLD";
+        }
+        return weekdayName(weekday(date)) + ", " + seasonName(season(date)) + " " + dayOfSeason(date) + ", " + yold(date) + " YOLD";
+    }
+
+    /**
+     * @return Liefert den Index (0 = 1. Januar) eines diskordianischen Tages im Gregorianischen Jahr year.
+     */
+    static int index(int year, int season, int dayOfSeason) {
+        if (season == ST_TIBS_DAY && dayOfSeason == 0) {
+            if (!EpochDays.isLeapYear(year)) {
+                throw new IllegalArgumentException("St. Tib's Day gibt es nur in Schaltjahren, nicht " + (year + YOLD_OFFSET) + " YOLD");
+            }
+            return ST_TIBS_INDEX;
+        }
+        if (season < CHAOS || season > THE_AFTERMATH || dayOfSeason < 1 || dayOfSeason > DAYS_PER_SEASON) {
+            throw new IllegalArgumentException("Ungültiges diskordianisches Datum: Jahreszeit " + season + ", Tag " + dayOfSeason);
+        }
+        int index = season * DAYS_PER_SEASON + dayOfSeason - 1;
+        return index >= ST_TIBS_INDEX && EpochDays.isLeapYear(year) ? index + 1 : index;
+    }
+
+    private static int yoldBits(int year) {
+        int yold = year + YOLD_OFFSET;
+        if (yold < MIN_YOLD || yold > MAX_YOLD) {
+            throw new IllegalArgumentException("YOLD außerhalb des darstellbaren Bereichs: " + yold);
+        }
+        return yold << YOLD_SHIFT;
+    }
+
+    private static int pack(int yold, int season, int dayOfSeason, int weekday) {
+        return yold << YOLD_SHIFT | season << SEASON_SHIFT | dayOfSeason << DAY_SHIFT | weekday;
+    }
+
+    private static void checkRange(int sourceLength, int from, int targetLength, int to, int length) {
+        if (from < 0 || to < 0 || length < 0 || from > sourceLength - length || to > targetLength - length) {
+            throw new IndexOutOfBoundsException("Bereich außerhalb der Arrays: from " + from + ", to " + to + ", length " + length);
+        }
+    }
+}
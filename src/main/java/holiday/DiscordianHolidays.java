@@ -1,11 +1,14 @@
 package holiday;
 
+import java.time.LocalDate;
 import java.time.MonthDay;
+import java.time.temporal.ChronoField;
 import java.time.temporal.Temporal;
 
 
 /**
- * Enum Daten-Klasse zum Ausgeben von diskordianischen Feiertagen
+ * Enum Daten-Klasse zum Ausgeben von diskordianischen Feiertagen.
+ * Die Termine werden mit den Tabellen von DiscordianCalendar berechnet.
  */
 public enum DiscordianHolidays implements Holiday {
 
@@ -22,25 +25,32 @@ public enum DiscordianHolidays implements Holiday {
     //MALADAY            	Maladay        	5. The Aftermath       	24.10.
     //AFFLUX             	Afflux         	50. The Aftermath      	08.12.
 
-    MUNGDAY("Mungday", 5, 1, new FixedHoliday("Mungday", MonthDay.of(1,5))),
-    CHAOFLUX("Chaoflux", 50, 1, new FixedHoliday("Chaoflux",MonthDay.of(2, 19))),
-    ST_TIBS_DAY("St. Tib's Day", 0, 0, new FloatingHoliday("St. Tib's Day", Generators.february29())),
-    MOJODAY("Mojoday", 5, 2, new FixedHoliday("Mungday",MonthDay.of(3, 19))),
-    DISCOFLUX("Discoflux", 50, 2, new FixedHoliday("Mungday",MonthDay.of(5, 3))),
-    SYADAY("Syaday", 5, 3, new FixedHoliday("Mungday",MonthDay.of(5, 31))),
-    CONFUFLUX("Confuflux", 50, 3, new FixedHoliday("Mungday",MonthDay.of(7, 15))),
-    ZARADAY("Zaraday", 5, 4, new FixedHoliday("Mungday",MonthDay.of(8, 12))),
-    BUREFLUX("Bureflux", 50, 4, new FixedHoliday("Mungday",MonthDay.of(9, 26))),
-    MALADAY("Maladay", 5, 5, new FixedHoliday("Mungday",MonthDay.of(10, 24))),
-    AFFLUX("Afflux", 50, 5, new FixedHoliday("Mungday",MonthDay.of(12, 8)));
+    MUNGDAY("Mungday", 5, 1),
+    CHAOFLUX("Chaoflux", 50, 1),
+    ST_TIBS_DAY("St. Tib's Day", 0, 0),
+    MOJODAY("Mojoday", 5, 2),
+    DISCOFLUX("Discoflux", 50, 2),
+    SYADAY("Syaday", 5, 3),
+    CONFUFLUX("Confuflux", 50, 3),
+    ZARADAY("Zaraday", 5, 4),
+    BUREFLUX("Bureflux", 50, 4),
+    MALADAY("Maladay", 5, 5),
+    AFFLUX("Afflux", 50, 5);
 
 
     private final String name;
-    private final Holiday holiday;
+    //Jahreszeit und Tag wie in DiscordianCalendar
+    private final int season;
+    private final int dayOfSeason;
 
-    DiscordianHolidays(String string, int dayDiscordian, int monthDiscordian, Holiday holiday) {
+    /**
+     * @param dayDiscordian ist der Tag in der Jahreszeit, 0 für St. Tib's Day
+     * @param monthDiscordian ist die Jahreszeit von 1 (Chaos) bis 5 (The Aftermath), 0 für St. Tib's Day
+     */
+    DiscordianHolidays(String string, int dayDiscordian, int monthDiscordian) {
         this.name = string;
-        this.holiday = holiday;
+        this.season = monthDiscordian == 0 ? DiscordianCalendar.ST_TIBS_DAY : monthDiscordian - 1;
+        this.dayOfSeason = dayDiscordian;
     }
 
     @Override
@@ -48,9 +58,43 @@ public enum DiscordianHolidays implements Holiday {
         return this.name;
     }
 
+    @Override
+    public long fingerprint() {
+        return new Fingerprint("DiscordianHolidays").add(name()).value();
+    }
+
+    /**
+     * @return Liefert die Jahreszeit wie in DiscordianCalendar, z.B. DiscordianCalendar.CHAOS.
+     */
+    public int getSeason() {
+        return this.season;
+    }
+
+    /**
+     * @return Liefert den Tag in der Jahreszeit, bzw. 0 für St. Tib's Day.
+     */
+    public int getDayOfSeason() {
+        return this.dayOfSeason;
+    }
+
+    /**
+     * @return Liefert das Gregorianische Datum, bzw. null für St. Tib's Day.
+     */
+    MonthDay getDate() {
+        if (this.season == DiscordianCalendar.ST_TIBS_DAY) {
+            return null;
+        }
+        //Im Gemeinjahr 1970 entspricht der Epoch Day dem Index im Jahr
+        return MonthDay.from(LocalDate.ofEpochDay(DiscordianCalendar.index(1970, this.season, this.dayOfSeason)));
+    }
+
 
     @Override
     public Temporal adjustInto(Temporal temporal) {
-        return temporal.with(this.holiday);
+        if (!temporal.isSupported(ChronoField.EPOCH_DAY)) {
+            throw new IllegalArgumentException("Parameter temporal unterstützt nicht das Feld Epoch Day");
+        }
+        long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+        return temporal.with(ChronoField.EPOCH_DAY, DiscordianCalendar.next(this.season, this.dayOfSeason, epochDay));
     }
 }
@@ -0,0 +1,49 @@
+package holiday;
+
+/**
+ * Ganzzahlige Datumsrechnung auf Epoch Days (Tage seit dem 1.1.1970) im proleptischen Gregorianischen Kalender,
+ * wie LocalDate, aber ohne Objekte zu erzeugen.
+ */
+final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    /**
+     * @return Liefert den Epoch Day eines Datums, wie LocalDate.of(year, month, day).toEpochDay().
+     */
+    static long of(int year, int month, int day) {
+        long y = month <= 2 ? year - 1L : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        int shiftedMonth = month > 2 ? month - 3 : month + 9;
+        long dayOfYear = (153 * shiftedMonth + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @return Liefert das Jahr eines Epoch Days, wie LocalDate.ofEpochDay(epochDay).getYear().
+     */
+    static int year(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        //Das Jahr beginnt hier am 1. März, Januar und Februar gehören also zum Folgejahr
+        return (int) (yearOfEra + era * 400 + (shiftedMonth >= 10 ? 1 : 0));
+    }
+
+    /**
+     * @return Liefert den Wochentag eines Epoch Days, 0 ist Montag (der 1.1.1970 war ein Donnerstag).
+     */
+    static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
@@ -0,0 +1,53 @@
+package holiday;
+
+/**
+ * Stabiler 64-Bit-Fingerabdruck (FNV-1a) der Definition eines Feiertags (siehe Holiday.fingerprint()).
+ * Anders als hashCode hängt er nur von den übergebenen Werten ab und bleibt daher über Neustarts und JVMs gleich,
+ * Aufzählungen werden deshalb über ihren Namen bzw. Wert und nie über ihren hashCode aufgenommen.
+ *
+ * <pre>
+ * return new Fingerprint("Fixed").add(name).add(date.getMonthValue()).add(date.getDayOfMonth()).value();
+ * </pre>
+ */
+public final class Fingerprint {
+
+    /** Kennzeichnet einen Feiertag, dessen Definition nicht bekannt ist, z.B. einen beliebigen TemporalAdjuster. */
+    public static final long UNKNOWN = 0;
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    /**
+     * @param kind unterscheidet die Arten von Feiertagen, z.B. "Fixed"
+     */
+    public Fingerprint(String kind) {
+        add(kind);
+    }
+
+    public Fingerprint add(long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ (value & 0xff)) * PRIME;
+            value >>>= 8;
+        }
+        return this;
+    }
+
+    public Fingerprint add(String value) {
+        add(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * PRIME;
+            hash = (hash ^ (c >>> 8)) * PRIME;
+        }
+        return this;
+    }
+
+    /**
+     * @return Liefert den Fingerabdruck, nie UNKNOWN.
+     */
+    public long value() {
+        return hash == UNKNOWN ? 1 : hash;
+    }
+}
@@ -40,6 +40,21 @@ public final class FixedHoliday implements Holiday {
         return this.name ;
     }
 
+    /**
+     * @return Liefert den Fingerabdruck aus Name und Datum.
+     */
+    @Override
+    public long fingerprint() {
+        return new Fingerprint("Fixed").add(name).add(date.getMonthValue()).add(date.getDayOfMonth()).value();
+    }
+
+    /**
+     * @return Liefert den Tag und Monat, an dem der Feiertag jedes Jahr stattfindet.
+     */
+    public MonthDay getDate() {
+        return this.date;
+    }
+
     /**
      * Die Methode wandelt das Parameter Temporal in eines um, das den nächsten Termin des jeweiligen Feiertags (Instanz dieser Klasse) wiedergibt.
      * @param temporal ein beliebiges Temporal Objekt
@@ -69,6 +84,25 @@ public final class FixedHoliday implements Holiday {
     }
 
 
+    /**
+     * @return Liefert den Termin im Jahr von date, bzw. im Folgejahr, falls er davor liegt.
+     */
+    @Override
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        LocalDate thisYear = this.date.atYear(date.getYear());
+        return thisYear.isBefore(date) ? this.date.atYear(date.getYear() + 1) : thisYear;
+    }
+
+    /**
+     * @return Liefert den Termin im Jahr von date, bzw. im Vorjahr, falls er nicht vor date liegt.
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        LocalDate thisYear = this.date.atYear(date.getYear());
+        return thisYear.isBefore(date) ? thisYear : this.date.atYear(date.getYear() - 1);
+    }
+
+
     public String toString(){
         return name;
     }
@@ -1,5 +1,6 @@
 package holiday;
 
+import java.time.LocalDate;
 import java.time.temporal.ChronoField;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjuster;
@@ -36,6 +37,21 @@ public final class FloatingHoliday implements Holiday {
         return this.name;
     }
 
+    /**
+     * @return Liefert den Fingerabdruck aus Name und Regel, bzw. Fingerprint.UNKNOWN, falls der Adjuster nicht aus Generators stammt.
+     */
+    @Override
+    public long fingerprint() {
+        if (!(adjuster instanceof Generators.Rule)) {
+            return Fingerprint.UNKNOWN;
+        }
+        return new Fingerprint("Floating").add(name).add(((Generators.Rule) adjuster).fingerprint()).value();
+    }
+
+    TemporalAdjuster getAdjuster() {
+        return this.adjuster;
+    }
+
     /**
      * Die Methode wandelt das Parameter Temporal in eines um, das den nächsten Termin des jeweiligen Feiertags (Instanz dieser Klasse) wiedergibt.
      * @param temporal ein beliebiges Temporal Objekt
@@ -59,6 +75,28 @@ public final class FloatingHoliday implements Holiday {
         }
     }
 
+    /**
+     * Regeln aus Generators berechnen den Termin direkt im Jahr von date, andere zählen wie Holiday.firstOnOrAfter.
+     */
+    @Override
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        if (adjuster instanceof Generators.Rule) {
+            return ((Generators.Rule) adjuster).firstOnOrAfter(date);
+        }
+        return Holiday.super.firstOnOrAfter(date);
+    }
+
+    /**
+     * Regeln aus Generators berechnen den Termin direkt im Jahr von date, andere suchen wie Holiday.previous.
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        if (adjuster instanceof Generators.Rule) {
+            return ((Generators.Rule) adjuster).previous(date);
+        }
+        return Holiday.super.previous(date);
+    }
+
     public String toString(){
         return this.name;
     }
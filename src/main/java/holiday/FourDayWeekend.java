@@ -21,6 +21,10 @@ public final class FourDayWeekend implements Holiday {
             .thenComparing(LocalDate::getDayOfMonth);
     private final List<LocalDate> listOfCandidates = new ArrayList<>();
     private final List<LocalDate> feiertagsListe = new ArrayList<>();
+    private int evaluationSteps;
+    //wahr, falls alle Feiertage periodisch sind, Brückentage werden dann über eine Zyklustabelle bestimmt
+    private final boolean periodic;
+    private volatile CycleTable cycleTable;
 
     /**
      * Konstruktor erstellt ein neues FourDayWeekend mit einer Kopie der übergebenen Collection von Feiertagen.
@@ -31,6 +35,7 @@ public final class FourDayWeekend implements Holiday {
             throw new NullPointerException();
         }
         this.holidays = new ArrayList<>(holidays);
+        this.periodic = allPeriodic(this.holidays);
     }
 
     /**
@@ -43,6 +48,35 @@ public final class FourDayWeekend implements Holiday {
         }
         this.holidays = new ArrayList<>();
         (this.holidays).addAll(Arrays.asList(holidays));
+        this.periodic = allPeriodic(this.holidays);
+    }
+
+    private static boolean allPeriodic(Collection<Holiday> holidays) {
+        for (Holiday holiday : holidays) {
+            if (!GregorianCycle.isPeriodic(holiday)) {
+                return false;
+            }
+        }
+        return !holidays.isEmpty();
+    }
+
+    /**
+     * @return wahr, falls alle berücksichtigten Feiertage und damit auch die Brückentage periodisch sind (siehe GregorianCycle)
+     */
+    boolean isPeriodic() {
+        return this.periodic;
+    }
+
+    /**
+     * @return Liefert die Brückentage eines 400-jährigen Zyklus, sie werden beim ersten Aufruf berechnet.
+     */
+    CycleTable cycleTable() {
+        CycleTable table = this.cycleTable;
+        if (table == null) {
+            table = GregorianCycle.shared(fingerprint(), () -> GregorianCycle.bridgeDays(this.holidays));
+            this.cycleTable = table;
+        }
+        return table;
     }
 
     /**
@@ -61,6 +95,28 @@ public final class FourDayWeekend implements Holiday {
         return "4 Day Weekend";
     }
 
+    /**
+     * @return Liefert den Fingerabdruck der berücksichtigten Feiertage unabhängig von ihrer Reihenfolge,
+     * bzw. Fingerprint.UNKNOWN, falls einer davon unbekannt ist.
+     */
+    @Override
+    public long fingerprint() {
+        long[] fingerprints = new long[holidays.size()];
+        int i = 0;
+        for (Holiday holiday : holidays) {
+            fingerprints[i] = holiday.fingerprint();
+            if (fingerprints[i++] == Fingerprint.UNKNOWN) {
+                return Fingerprint.UNKNOWN;
+            }
+        }
+        Arrays.sort(fingerprints);
+        Fingerprint fingerprint = new Fingerprint("FourDayWeekend");
+        for (long value : fingerprints) {
+            fingerprint.add(value);
+        }
+        return fingerprint.value();
+    }
+
 
     /**
      * Wandelt das übergebene Temporal-Objekt in eines mit dem Datum des nächsten Brückentags um.
@@ -86,6 +142,7 @@ public final class FourDayWeekend implements Holiday {
         Diese Methode liefert bei einem Zeitabstand von zwei Monaten und einem Tag "1" zurück.
         Das Ergebnis dieser Methode darf kein Feiertag sein.
         Wurde in den 100 Jahren nach temporal kein Brückentag gefunden, soll die Suche abgebrochen werden.
+        Die Suche prüft je Monat die an den Thread gebundene Frist (siehe Deadline).
         Achten Sie auf eine effiziente Implementierung,
         da die automatischen Tests nach einer festen Zeitspanne abgebrochen werden und dann als nicht bestanden gelten.
         Das zurückgegebene Temporal soll die gleichen (oder mehr) Felder unterstützen wie das übergebene.
@@ -95,19 +152,57 @@ public final class FourDayWeekend implements Holiday {
         }
         if (this.holidays.isEmpty()) {
             return null;
+        } else if (this.periodic) {
+            //Die Suche über bis zu 100 Jahre entfällt, der nächste Brückentag wird in der Zyklustabelle nachgeschlagen
+            RuleEvaluationEvent event = RuleEvents.begin();
+            long reference = temporal.getLong(ChronoField.EPOCH_DAY);
+            long next = cycleTable().nextAfter(reference);
+            RuleEvents.complete(event, this, temporal, 1);
+            if (next == CycleTable.NONE || next > LocalDate.ofEpochDay(reference).plusYears(100).toEpochDay()) {
+                return null;
+            }
+            return temporal.with(LocalDate.ofEpochDay(next));
         } else {
-            int rekursionsCount = 0;
-            listOfCandidates.clear();
-            feiertagsListe.clear();
-            randomDate = LocalDate.from(temporal);
-            this.temporal = temporal;
-            LocalDate result = calc();
+            RuleEvaluationEvent event = RuleEvents.begin();
+            LocalDate result;
+            int steps;
+            //calc() arbeitet auf Feldern dieser Instanz, gleichzeitige Suchen müssen daher nacheinander laufen
+            synchronized (this) {
+                listOfCandidates.clear();
+                feiertagsListe.clear();
+                randomDate = LocalDate.from(temporal);
+                this.temporal = temporal;
+                evaluationSteps = 0;
+                result = calc();
+                steps = evaluationSteps;
+            }
+            RuleEvents.complete(event, this, temporal, steps);
             if (result == null){
                 return null;
             }else return temporal.with(result);
         }
     }
 
+    /**
+     * Sind alle Feiertage periodisch, wird der vorherige Brückentag wie der nächste in der Zyklustabelle nachgeschlagen,
+     * sonst wie in Holiday.previous gesucht. Wie bei adjustInto wird höchstens 100 Jahre weit gesucht.
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        if (!this.periodic) {
+            return Holiday.super.previous(date);
+        }
+        long previous = cycleTable().previousBefore(date.toEpochDay());
+        if (previous == CycleTable.NONE || previous < date.minusYears(100).toEpochDay()) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(previous);
+    }
+
+    public String toString() {
+        return getName();
+    }
+
     /**
      * Überschriebene equals und hashCode Methoden von FourDayWeekend,
      * sodass zwei Instanzen genau dann gleich sind, wenn sie die gleichen Feiertage berücksichtigen.
@@ -148,6 +243,8 @@ public final class FourDayWeekend implements Holiday {
         LocalDate lastElement;
         int iterationMonths = 1;
         do {
+            Deadline.check();
+            evaluationSteps++;
             LocalDate iterationDate = randomDate.plusMonths(iterationMonths);
             for (Holiday holiday : holidays) {
                 //Spezialfälle
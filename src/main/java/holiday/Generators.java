@@ -28,26 +28,103 @@ public final class Generators {
 
     private final static TemporalQuery<LocalDate> query = TemporalQueries.localDate();
 
+    /**
+     * Gemeinsame Oberklasse der hier erzeugten TemporalAdjuster.
+     * Über sie können andere Klassen des Pakets die Art und die Parameter einer Regel erkennen.
+     */
+    abstract static class Rule implements TemporalAdjuster {
+
+        /**
+         * Der Gregorianische Kalender wiederholt sich exakt alle 400 Jahre (146097 Tage, eine ganze Anzahl an Wochen).
+         * @return wahr, falls sich die Termine dieser Regel ebenfalls alle 400 Jahre wiederholen
+         */
+        boolean isPeriodic() {
+            return true;
+        }
+
+        /**
+         * Die Termine einer Regel sind ihre Termine der einzelnen Jahre, steigen also mit dem Jahr.
+         * Ein Termin kann über das Jahresende hinaus in den Januar des Folgejahres fallen (z.B. der 366. Tag).
+         * @return Liefert den Termin der Regel für das angegebene Jahr oder null, falls es in diesem Jahr keinen gibt.
+         */
+        abstract LocalDate inYear(int year);
+
+        /**
+         * @return Liefert den Fingerabdruck aus Art und Parametern der Regel (siehe Holiday.fingerprint()).
+         */
+        abstract long fingerprint();
+
+        /**
+         * @return Liefert den ersten Termin am oder nach date, ohne vom Jahresanfang aus zu zählen.
+         */
+        LocalDate firstOnOrAfter(LocalDate date) {
+            //Der Termin des Vorjahres kann noch im Januar liegen, Schalttage wiederholen sich spätestens nach 8 Jahren
+            for (int year = date.getYear() - 1; year <= date.getYear() + 8; year++) {
+                LocalDate candidate = inYear(year);
+                if (candidate != null && !candidate.isBefore(date)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return Liefert den letzten Termin vor date.
+         */
+        LocalDate previous(LocalDate date) {
+            for (int year = date.getYear(); year >= date.getYear() - 8; year--) {
+                LocalDate candidate = inYear(year);
+                if (candidate != null && candidate.isBefore(date)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * Erstellt einen TemporalAdjuster für Feiertage nach dem Schema "n - ter Wochentag im Monat".
      * Beispielsweise liegt Thanksgiving immer am 4. Donnerstag im November eines Jahres.
      * @return liefert einen TemporalAdjuster nach dem Schema n - ter Wochentag im Monat
      */
     public static TemporalAdjuster byDayOfWeekInMonth(Month month, DayOfWeek dayOfWeek, int ordinal) {
-        return new TemporalAdjuster() {
-            @Override
-            public Temporal adjustInto(Temporal temporal) {
-                LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
-                temporal = temporal.with(ChronoField.MONTH_OF_YEAR, month.getValue())
+        return new DayOfWeekInMonth(month, dayOfWeek, ordinal);
+    }
+
+    static final class DayOfWeekInMonth extends Rule {
+
+        final Month month;
+        final DayOfWeek dayOfWeek;
+        final int ordinal;
+
+        private DayOfWeekInMonth(Month month, DayOfWeek dayOfWeek, int ordinal) {
+            this.month = month;
+            this.dayOfWeek = dayOfWeek;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public Temporal adjustInto(Temporal temporal) {
+            LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
+            temporal = temporal.with(ChronoField.MONTH_OF_YEAR, month.getValue())
+                    .with(TemporalAdjusters.firstInMonth(dayOfWeek)).plus(7 * (ordinal - 1), ChronoUnit.DAYS);
+            if (!Generators.getInstance().isThisYear(nonHoliday, temporal)) {
+                temporal = temporal.with(ChronoField.YEAR, temporal.get(ChronoField.YEAR) + 1)
+                        .with(ChronoField.MONTH_OF_YEAR, month.getValue())
                         .with(TemporalAdjusters.firstInMonth(dayOfWeek)).plus(7 * (ordinal - 1), ChronoUnit.DAYS);
-                if (!Generators.getInstance().isThisYear(nonHoliday, temporal)) {
-                    temporal = temporal.with(ChronoField.YEAR, temporal.get(ChronoField.YEAR) + 1)
-                            .with(ChronoField.MONTH_OF_YEAR, month.getValue())
-                            .with(TemporalAdjusters.firstInMonth(dayOfWeek)).plus(7 * (ordinal - 1), ChronoUnit.DAYS);
-                    return temporal;
-                } else return temporal;
-            }
-        };
+                return temporal;
+            } else return temporal;
+        }
+
+        @Override
+        long fingerprint() {
+            return new Fingerprint("DayOfWeekInMonth").add(month.getValue()).add(dayOfWeek.getValue()).add(ordinal).value();
+        }
+
+        @Override
+        LocalDate inYear(int year) {
+            return LocalDate.of(year, month, 1).with(TemporalAdjusters.firstInMonth(dayOfWeek)).plusDays(7 * (ordinal - 1));
+        }
     }
 
     /**
@@ -56,22 +133,45 @@ public final class Generators {
      * @return liefert einen TemporalAdjuster für Feiertage nach dem Schema: "Wochentag vor festem Datum"
      */
     public static TemporalAdjuster byDayOfWeekBeforeDate(DayOfWeek dayOfWeek, MonthDay date) {
-        return new TemporalAdjuster() {
-            @Override
-            public Temporal adjustInto(Temporal temporal) {
-                LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
-                temporal = temporal.with(ChronoField.MONTH_OF_YEAR, date.getMonthValue())
+        return new DayOfWeekBeforeDate(dayOfWeek, date);
+    }
+
+    static final class DayOfWeekBeforeDate extends Rule {
+
+        final DayOfWeek dayOfWeek;
+        final MonthDay date;
+
+        private DayOfWeekBeforeDate(DayOfWeek dayOfWeek, MonthDay date) {
+            this.dayOfWeek = dayOfWeek;
+            this.date = date;
+        }
+
+        @Override
+        public Temporal adjustInto(Temporal temporal) {
+            LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
+            temporal = temporal.with(ChronoField.MONTH_OF_YEAR, date.getMonthValue())
+                    .with(ChronoField.DAY_OF_MONTH, date.getDayOfMonth() - 1)
+                    .with(TemporalAdjusters.previousOrSame(dayOfWeek));
+            if (!Generators.getInstance().isThisYear(nonHoliday, temporal)) {
+                temporal = temporal.with(ChronoField.YEAR, temporal.get(ChronoField.YEAR) + 1)
+                        .with(ChronoField.MONTH_OF_YEAR, date.getMonthValue())
                         .with(ChronoField.DAY_OF_MONTH, date.getDayOfMonth() - 1)
                         .with(TemporalAdjusters.previousOrSame(dayOfWeek));
-                if (!Generators.getInstance().isThisYear(nonHoliday, temporal)) {
-                    temporal = temporal.with(ChronoField.YEAR, temporal.get(ChronoField.YEAR) + 1)
-                            .with(ChronoField.MONTH_OF_YEAR, date.getMonthValue())
-                            .with(ChronoField.DAY_OF_MONTH, date.getDayOfMonth() - 1)
-                            .with(TemporalAdjusters.previousOrSame(dayOfWeek));
-                } else return temporal;
-                return temporal;
-            }
-        };
+            } else return temporal;
+            return temporal;
+        }
+
+        @Override
+        long fingerprint() {
+            return new Fingerprint("DayOfWeekBeforeDate").add(dayOfWeek.getValue()).add(date.getMonthValue()).add(date.getDayOfMonth()).value();
+        }
+
+        @Override
+        LocalDate inYear(int year) {
+            //wie adjustInto ab dem Tag vor date rückwärts
+            return LocalDate.of(year, date.getMonthValue(), 1).plusDays(date.getDayOfMonth() - 2)
+                    .with(TemporalAdjusters.previousOrSame(dayOfWeek));
+        }
     }
 
     /**
@@ -80,18 +180,37 @@ public final class Generators {
      * @return liefert einen TemporalAdjuster für Feiertage nach dem Schema "n-ter Tag im Jahr"
      */
     public static TemporalAdjuster byDayOfYear(int dayOfYear) {
-        return new TemporalAdjuster() {
-            @Override
-            public Temporal adjustInto(Temporal temporal) {
+        return new DayOfYear(dayOfYear);
+    }
 
-                if (temporal.get(ChronoField.DAY_OF_YEAR) >= dayOfYear) {
-                    return temporal = temporal.plus(1, ChronoUnit.YEARS).with(TemporalAdjusters.firstDayOfYear()).plus(dayOfYear - 1, ChronoUnit.DAYS);
-                }
-                temporal = temporal.with(TemporalAdjusters.firstDayOfYear()).plus(dayOfYear - 1, ChronoUnit.DAYS);
+    static final class DayOfYear extends Rule {
 
-                return temporal;
+        final int dayOfYear;
+
+        private DayOfYear(int dayOfYear) {
+            this.dayOfYear = dayOfYear;
+        }
+
+        @Override
+        public Temporal adjustInto(Temporal temporal) {
+
+            if (temporal.get(ChronoField.DAY_OF_YEAR) >= dayOfYear) {
+                return temporal = temporal.plus(1, ChronoUnit.YEARS).with(TemporalAdjusters.firstDayOfYear()).plus(dayOfYear - 1, ChronoUnit.DAYS);
             }
-        };
+            temporal = temporal.with(TemporalAdjusters.firstDayOfYear()).plus(dayOfYear - 1, ChronoUnit.DAYS);
+
+            return temporal;
+        }
+
+        @Override
+        long fingerprint() {
+            return new Fingerprint("DayOfYear").add(dayOfYear).value();
+        }
+
+        @Override
+        LocalDate inYear(int year) {
+            return LocalDate.of(year, 1, 1).plusDays(dayOfYear - 1);
+        }
     }
 
     /**
@@ -99,7 +218,7 @@ public final class Generators {
      * @param year das Jahr in dem der Ostersonntag sein soll
      * @return liefert den Ostersonntag als Tag im März, muss also unter Umständen noch entsprechend umgerechnet werden (OS = 32 ⇒ 32. März = 1. April)
      */
-    private int calcEasterSunday(int year) {
+    static int calcEasterSunday(int year) {
         int x = year; //(X ist das Kalenderjahr)
         int k = (int) Math.floor(x / 100);
         int m = 15 + (int) Math.floor((3 * k + 3) / 4) - (int) Math.floor((8 * k + 13) / 25);
@@ -124,35 +243,59 @@ public final class Generators {
      * @return
      */
     public static TemporalAdjuster easterSunday() {
-        return new TemporalAdjuster() {
-            @Override
-            public Temporal adjustInto(Temporal temporal) {
+        return new EasterSunday();
+    }
 
-                if (!temporal.isSupported(ChronoField.EPOCH_DAY)) {
-                    throw new DateTimeException("Epoch Day not supported");
-                }
-                int os = Generators.getInstance().calcEasterSunday(temporal.get(ChronoField.YEAR));
-                int daysInApril = os - 31;
-                LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
+    static final class EasterSunday extends Rule {
+
+        private EasterSunday() {
+        }
+
+        /**
+         * Der Ostertermin hängt vom Mondzyklus ab und wiederholt sich nicht nach 400 Jahren.
+         */
+        @Override
+        boolean isPeriodic() {
+            return false;
+        }
+
+        @Override
+        public Temporal adjustInto(Temporal temporal) {
+
+            if (!temporal.isSupported(ChronoField.EPOCH_DAY)) {
+                throw new DateTimeException("Epoch Day not supported");
+            }
+            int os = calcEasterSunday(temporal.get(ChronoField.YEAR));
+            int daysInApril = os - 31;
+            LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
+            if (os <= 31) {
+                temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 3).with(ChronoField.DAY_OF_MONTH, os);
+            } else {
+                temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 4).with(ChronoField.DAY_OF_MONTH, daysInApril);
+            }
+            if (Generators.getInstance().isThisYear(nonHoliday, temporal)) {
+                return temporal;
+            } else {
+                os = calcEasterSunday(temporal.get(ChronoField.YEAR) + 1);
+                daysInApril = os - 31;
+                temporal = temporal.plus(1, ChronoUnit.YEARS);
                 if (os <= 31) {
-                    temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 3).with(ChronoField.DAY_OF_MONTH, os);
-                } else {
-                    temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 4).with(ChronoField.DAY_OF_MONTH, daysInApril);
-                }
-                if (Generators.getInstance().isThisYear(nonHoliday, temporal)) {
-                    return temporal;
+                    return temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 3).with(ChronoField.DAY_OF_MONTH, os);
                 } else {
-                    os = Generators.getInstance().calcEasterSunday(temporal.get(ChronoField.YEAR) + 1);
-                    daysInApril = os - 31;
-                    temporal = temporal.plus(1, ChronoUnit.YEARS);
-                    if (os <= 31) {
-                        return temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 3).with(ChronoField.DAY_OF_MONTH, os);
-                    } else {
-                        return temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 4).with(ChronoField.DAY_OF_MONTH, daysInApril);
-                    }
+                    return temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 4).with(ChronoField.DAY_OF_MONTH, daysInApril);
                 }
             }
-        };
+        }
+
+        @Override
+        long fingerprint() {
+            return new Fingerprint("EasterSunday").value();
+        }
+
+        @Override
+        LocalDate inYear(int year) {
+            return LocalDate.of(year, 3, 1).plusDays(calcEasterSunday(year) - 1);
+        }
     }
 
     /**
@@ -161,29 +304,45 @@ public final class Generators {
      * @return liefert einen TemporalAdjuster für den ersten Advent.
      */
     public static TemporalAdjuster advent() {
-        return new TemporalAdjuster() {
-            @Override
-            public Temporal adjustInto(Temporal temporal) {
+        return new Advent();
+    }
+
+    static final class Advent extends Rule {
+
+        private Advent() {
+        }
 
-                LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
-                temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 12)
+        @Override
+        public Temporal adjustInto(Temporal temporal) {
+
+            LocalDate nonHoliday = LocalDate.of(temporal.get(ChronoField.YEAR), temporal.get(ChronoField.MONTH_OF_YEAR), temporal.get(ChronoField.DAY_OF_MONTH));
+            temporal = temporal.with(ChronoField.MONTH_OF_YEAR, 12)
+                    .with(ChronoField.DAY_OF_MONTH, 24)
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY))
+                    .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY))
+                    .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY))
+                    .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY));
+            if (!Generators.getInstance().isThisYear(nonHoliday, temporal)) {
+                temporal = temporal.with(ChronoField.YEAR, temporal.get(ChronoField.YEAR) + 1)
+                        .with(ChronoField.MONTH_OF_YEAR, 12)
                         .with(ChronoField.DAY_OF_MONTH, 24)
                         .with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY))
                         .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY))
                         .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY))
                         .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY));
-                if (!Generators.getInstance().isThisYear(nonHoliday, temporal)) {
-                    temporal = temporal.with(ChronoField.YEAR, temporal.get(ChronoField.YEAR) + 1)
-                            .with(ChronoField.MONTH_OF_YEAR, 12)
-                            .with(ChronoField.DAY_OF_MONTH, 24)
-                            .with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY))
-                            .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY))
-                            .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY))
-                            .with(TemporalAdjusters.previous(DayOfWeek.SUNDAY));
-                }
-                return temporal;
             }
-        };
+            return temporal;
+        }
+
+        @Override
+        long fingerprint() {
+            return new Fingerprint("Advent").value();
+        }
+
+        @Override
+        LocalDate inYear(int year) {
+            return LocalDate.of(year, 12, 24).with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY)).minusWeeks(3);
+        }
     }
 
 
@@ -193,7 +352,16 @@ public final class Generators {
      * @return liefert einen TemporalAdjuster für den 29. Februar.
      */
     public static TemporalAdjuster february29() {
-        return temporal -> {
+        return new February29();
+    }
+
+    static final class February29 extends Rule {
+
+        private February29() {
+        }
+
+        @Override
+        public Temporal adjustInto(Temporal temporal) {
             if (LocalDate.from(temporal).getMonthValue()==2 && LocalDate.from(temporal).getDayOfMonth()==29 && !LocalDate.from(temporal).isLeapYear()){
                 temporal= temporal.with(ChronoField.MONTH_OF_YEAR, 3).with(ChronoField.DAY_OF_MONTH,1);
             }
@@ -201,7 +369,17 @@ public final class Generators {
             return temporal.with(ChronoField.YEAR, temporalWithFebruary29.get(ChronoField.YEAR))
                     .with(ChronoField.MONTH_OF_YEAR, 2)
                     .with(ChronoField.DAY_OF_MONTH, 29);
-        };
+        }
+
+        @Override
+        long fingerprint() {
+            return new Fingerprint("February29").value();
+        }
+
+        @Override
+        LocalDate inYear(int year) {
+            return Year.isLeap(year) ? LocalDate.of(year, 2, 29) : null;
+        }
     }
 
     private Temporal findNearestFebruary29(Temporal temporal) {
@@ -0,0 +1,156 @@
+package holiday;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Der Gregorianische Kalender wiederholt sich exakt alle 400 Jahre, denn 400 Jahre sind 146097 Tage
+ * und damit eine ganze Anzahl an Wochen. Feiertage, deren Regel nur von Monat, Tag und Wochentag abhängt,
+ * wiederholen sich daher ebenfalls mit dieser Periode. Diese Utility-Klasse erkennt solche Feiertage
+ * und berechnet ihre Termine einmalig für einen Zyklus (siehe CycleTable).
+ * Die Tabellen werden nach dem Fingerabdruck ihres Feiertags (siehe Holiday.fingerprint()) im Prozess geteilt,
+ * Feiertage mit gleicher Definition, z.B. in mehreren HolidayManagern, berechnen ihre Tabelle also nur einmal.
+ * Nicht periodisch sind z.B. Ostern (und alle davon abhängigen Feiertage) sowie die Mondphasen.
+ */
+public final class GregorianCycle {
+
+    /** Anzahl der Jahre eines Zyklus. */
+    public static final int YEARS = 400;
+    /** Anzahl der Tage eines Zyklus. */
+    public static final int DAYS = 146097;
+
+    //Der Referenzzyklus beginnt am 1.1.2000, einem Samstag, der erste Montag ist also der 3.1.2000
+    static final int BASE_YEAR = 2000;
+    static final long BASE_EPOCH_DAY = LocalDate.of(BASE_YEAR, 1, 1).toEpochDay();
+
+    //höchstens so viele Tabellen werden geteilt, weitere werden bei jedem Aufruf berechnet
+    private static final int SHARED_LIMIT = 4096;
+    private static final ConcurrentHashMap<Long, CycleTable> SHARED = new ConcurrentHashMap<>();
+
+    private GregorianCycle() {
+    }
+
+    /**
+     * @param holiday ist der zu prüfende Feiertag
+     * @return wahr, falls sich die Termine des Feiertags exakt alle 400 Jahre wiederholen
+     */
+    public static boolean isPeriodic(Holiday holiday) {
+        if (holiday instanceof FixedHoliday || holiday instanceof DiscordianHolidays) {
+            return true;
+        }
+        if (holiday instanceof FloatingHoliday) {
+            Object adjuster = ((FloatingHoliday) holiday).getAdjuster();
+            return adjuster instanceof Generators.Rule && ((Generators.Rule) adjuster).isPeriodic();
+        }
+        if (holiday instanceof DependentHoliday) {
+            return isPeriodic(((DependentHoliday) holiday).getAnchor());
+        }
+        if (holiday instanceof CachedHoliday) {
+            return isPeriodic(((CachedHoliday) holiday).getHoliday());
+        }
+        if (holiday instanceof FourDayWeekend) {
+            return ((FourDayWeekend) holiday).isPeriodic();
+        }
+        return false;
+    }
+
+    /**
+     * Berechnet die Termine eines periodischen Feiertags innerhalb eines Zyklus.
+     * @param holiday ist ein periodischer Feiertag
+     * @return Liefert die Termine des Feiertags innerhalb eines Zyklus.
+     * Ist der Feiertag nicht periodisch, wird eine IllegalArgumentException geworfen.
+     */
+    public static CycleTable table(Holiday holiday) {
+        if (!isPeriodic(holiday)) {
+            throw new IllegalArgumentException(holiday.getName() + " ist nicht periodisch");
+        }
+        if (holiday instanceof CachedHoliday) {
+            return table(((CachedHoliday) holiday).getHoliday());
+        }
+        if (holiday instanceof FourDayWeekend) {
+            return ((FourDayWeekend) holiday).cycleTable();
+        }
+        return shared(holiday.fingerprint(), () -> walk(holiday));
+    }
+
+    /**
+     * @param fingerprint ist der Fingerabdruck eines periodischen Feiertags (siehe Holiday.fingerprint())
+     * @return Liefert die bereits berechnete Zyklustabelle eines Feiertags mit diesem Fingerabdruck oder null.
+     */
+    public static CycleTable cached(long fingerprint) {
+        return fingerprint == Fingerprint.UNKNOWN ? null : SHARED.get(fingerprint);
+    }
+
+    /**
+     * Liefert die geteilte Tabelle zum Fingerabdruck oder berechnet sie. Gleichzeitige Berechnungen derselben Tabelle
+     * sind harmlos, es wird nur die erste geteilt. computeIfAbsent scheidet aus, da die Brückentage während ihrer
+     * Berechnung die Tabellen ihrer Feiertage abfragen.
+     */
+    static CycleTable shared(long fingerprint, Supplier<CycleTable> computation) {
+        if (fingerprint == Fingerprint.UNKNOWN) {
+            return computation.get();
+        }
+        CycleTable table = SHARED.get(fingerprint);
+        if (table == null) {
+            table = computation.get();
+            if (SHARED.size() < SHARED_LIMIT) {
+                CycleTable other = SHARED.putIfAbsent(fingerprint, table);
+                if (other != null) {
+                    table = other;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Bestimmt die Termine durch wiederholtes Anwenden des Feiertags vom Tag vor Beginn des Zyklus an.
+     */
+    private static CycleTable walk(Holiday holiday) {
+        int[] offsets = new int[YEARS];
+        int size = 0;
+        LocalDate end = LocalDate.ofEpochDay(BASE_EPOCH_DAY + DAYS);
+        LocalDate previous = LocalDate.ofEpochDay(BASE_EPOCH_DAY - 1);
+        LocalDate occurrence = previous.with(holiday);
+        while (occurrence != null && occurrence.isBefore(end)) {
+            Deadline.check();
+            if (!occurrence.isAfter(previous)) {
+                throw new IllegalStateException(holiday.getName() + " liefert keinen späteren Termin nach " + previous);
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = (int) (occurrence.toEpochDay() - BASE_EPOCH_DAY);
+            previous = occurrence;
+            occurrence = occurrence.with(holiday);
+        }
+        return new CycleTable(Arrays.copyOf(offsets, size));
+    }
+
+    /**
+     * Berechnet die Brückentage eines Zyklus aus den Zyklustabellen der zugrundeliegenden Feiertage.
+     * Ein Brückentag ist ein Montag vor einem Feiertag bzw. ein Freitag nach einem Feiertag, der selbst kein Feiertag ist.
+     * Der Zyklus beginnt an einem Samstag und endet an einem Freitag, jede Arbeitswoche liegt also vollständig in ihm.
+     */
+    static CycleTable bridgeDays(Iterable<Holiday> holidays) {
+        BitSet holidayDays = new BitSet(DAYS);
+        for (Holiday holiday : holidays) {
+            table(holiday).forEachBetween(BASE_EPOCH_DAY, BASE_EPOCH_DAY + DAYS, day -> holidayDays.set((int) (day - BASE_EPOCH_DAY)));
+        }
+        int[] offsets = new int[DAYS / 7 * 2];
+        int size = 0;
+        for (int monday = 2; monday < DAYS; monday += 7) {
+            int friday = monday + 4;
+            if (!holidayDays.get(monday) && holidayDays.get(monday + 1)) {
+                offsets[size++] = monday;
+            }
+            if (!holidayDays.get(friday) && holidayDays.get(friday - 1)) {
+                offsets[size++] = friday;
+            }
+        }
+        return new CycleTable(Arrays.copyOf(offsets, size));
+    }
+}
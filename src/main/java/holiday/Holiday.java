@@ -1,7 +1,56 @@
 package holiday;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
 public interface Holiday extends java.time.temporal.TemporalAdjuster {
 
     String getName();
 
+    /**
+     * Liefert einen stabilen Fingerabdruck der Definition (siehe Fingerprint), z.B. als Schlüssel gemeinsam genutzter
+     * oder gespeicherter Tabellen. Anders als equals und hashCode berücksichtigt er nicht nur den Namen, sondern auch
+     * die Regel. Gleiche Definitionen liefern in jedem Prozess denselben Wert, verschiedene mit hoher Wahrscheinlichkeit
+     * verschiedene Werte.
+     * @return Liefert den Fingerabdruck oder Fingerprint.UNKNOWN, falls die Definition nicht bekannt ist.
+     * Ohne eigene Implementierung ist sie das immer.
+     */
+    default long fingerprint() {
+        return Fingerprint.UNKNOWN;
+    }
+
+    /**
+     * Liefert den ersten Termin am oder nach date, also date.minusDays(1).with(this).
+     * Feiertage mit geschlossener Formel springen direkt in das Jahr von date, statt sich Termin für Termin vorzuarbeiten.
+     * @return Liefert den ersten Termin am oder nach date oder null, falls es keinen gibt.
+     */
+    default LocalDate firstOnOrAfter(LocalDate date) {
+        return date.minusDays(1).with(this);
+    }
+
+    /**
+     * Liefert den letzten Termin vor date. Ohne eigene Implementierung wird in wachsenden Abständen
+     * (1, 2, 4, ... 128 Jahre) zurückgesprungen, bis ein Termin vor date liegt, und von dort vorwärts gezählt.
+     * @return Liefert den letzten Termin vor date oder null, falls es in den 128 Jahren davor keinen gibt.
+     */
+    default LocalDate previous(LocalDate date) {
+        for (int years = 1; years <= 128; years *= 2) {
+            LocalDate candidate;
+            try {
+                candidate = date.minusYears(years).with(this);
+            } catch (DateTimeException ex) {
+                return null;
+            }
+            if (candidate != null && candidate.isBefore(date)) {
+                LocalDate next = candidate.with(this);
+                while (next != null && next.isBefore(date)) {
+                    Deadline.check();
+                    candidate = next;
+                    next = next.with(this);
+                }
+                return candidate;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,159 @@
+package holiday;
+
+import java.time.DayOfWeek;
+import java.time.MonthDay;
+import java.time.Period;
+import java.time.temporal.TemporalAdjuster;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diese Utility-Klasse übersetzt eine Menge von Feiertagen in ein CompiledHolidaySet.
+ * Feiertage bekannter Art (FixedHoliday, die Regeln aus Generators, DependentHoliday mit einer Verschiebung
+ * in ganzen Tagen und die diskordianischen Feiertage) werden dabei auf ihre Parameter reduziert,
+ * deren Termine sich je Jahr mit wenigen Ganzzahloperationen berechnen lassen.
+ * Alle anderen Feiertage, z.B. Mondphasen oder FourDayWeekend, werden wie bisher über adjustInto ausgewertet.
+ */
+public final class HolidayCompiler {
+
+    private HolidayCompiler() {
+    }
+
+    /**
+     * @param holidays sind die zu übersetzenden Feiertage
+     * @return Liefert die übersetzten Feiertage in der Reihenfolge der übergebenen Collection.
+     */
+    public static CompiledHolidaySet compile(Collection<? extends Holiday> holidays) {
+        if (holidays == null) {
+            throw new NullPointerException();
+        }
+        return new Program(new ArrayList<>(holidays)).link();
+    }
+
+    /**
+     * Sammelt die Parameter aller Regeln. Die ersten Regeln entsprechen den übergebenen Feiertagen,
+     * dahinter folgen Anker abhängiger Feiertage, die selbst nicht ausgegeben werden.
+     */
+    private static final class Program {
+
+        private final List<Holiday> holidays;
+        private final List<int[]> instructions = new ArrayList<>();
+        private final Map<Holiday, Integer> slots = new IdentityHashMap<>();
+
+        private Program(List<Holiday> holidays) {
+            this.holidays = holidays;
+            for (int i = 0; i < holidays.size(); i++) {
+                slots.putIfAbsent(holidays.get(i), i);
+                instructions.add(null);
+            }
+            for (int i = 0; i < holidays.size(); i++) {
+                instructions.set(i, describe(holidays.get(i)));
+            }
+        }
+
+        /**
+         * @return Liefert die Regel eines Ankers. Ist der Anker selbst keiner der übergebenen Feiertage,
+         * wird eine zusätzliche, nicht ausgegebene Regel angelegt.
+         */
+        private int slotOf(Holiday anchor) {
+            Integer slot = slots.get(anchor);
+            if (slot == null) {
+                slot = instructions.size();
+                slots.put(anchor, slot);
+                instructions.add(null);
+                instructions.set(slot, describe(anchor));
+            }
+            return slot;
+        }
+
+        /**
+         * @return Liefert {Art, a, b, c} zu einem Feiertag, bzw. eine WALK-Anweisung, falls die Art unbekannt ist.
+         */
+        private int[] describe(Holiday holiday) {
+            if (holiday instanceof CachedHoliday) {
+                return describe(((CachedHoliday) holiday).getHoliday());
+            }
+            if (holiday instanceof DiscordianHolidays) {
+                MonthDay date = ((DiscordianHolidays) holiday).getDate();
+                if (date == null) {
+                    return new int[]{CompiledHolidaySet.FEBRUARY_29, 0, 0, 0};
+                }
+                return new int[]{CompiledHolidaySet.FIXED, date.getMonthValue(), date.getDayOfMonth(), 0};
+            }
+            if (holiday instanceof FixedHoliday) {
+                MonthDay date = ((FixedHoliday) holiday).getDate();
+                return new int[]{CompiledHolidaySet.FIXED, date.getMonthValue(), date.getDayOfMonth(), 0};
+            }
+            if (holiday instanceof FloatingHoliday) {
+                return describe(((FloatingHoliday) holiday).getAdjuster());
+            }
+            if (holiday instanceof DependentHoliday) {
+                DependentHoliday dependent = (DependentHoliday) holiday;
+                Period delta = dependent.getDelta();
+                int[] anchor = describe(dependent.getAnchor());
+                //Nur Anker mit höchstens einem Termin pro Jahr, so dass je Jahr höchstens drei Kandidaten entstehen
+                if (delta.getYears() == 0 && delta.getMonths() == 0 && Math.abs(delta.getDays()) < 365
+                        && anchor[0] != CompiledHolidaySet.WALK && anchor[0] != CompiledHolidaySet.DEPENDENT) {
+                    int slot = slotOf(dependent.getAnchor());
+                    return new int[]{CompiledHolidaySet.DEPENDENT, slot, delta.getDays(), 0};
+                }
+            }
+            return walk();
+        }
+
+        private int[] describe(TemporalAdjuster adjuster) {
+            if (adjuster instanceof Generators.DayOfWeekInMonth) {
+                Generators.DayOfWeekInMonth rule = (Generators.DayOfWeekInMonth) adjuster;
+                //Ab dem 5. Wochentag kann der Termin in den Folgemonat fallen
+                if (rule.ordinal >= 1 && rule.ordinal <= 4) {
+                    return new int[]{CompiledHolidaySet.DAY_OF_WEEK_IN_MONTH, rule.month.getValue(), index(rule.dayOfWeek), rule.ordinal};
+                }
+            } else if (adjuster instanceof Generators.DayOfWeekBeforeDate) {
+                Generators.DayOfWeekBeforeDate rule = (Generators.DayOfWeekBeforeDate) adjuster;
+                //Der Termin muss sicher im selben Jahr und ohne Tag 0 des Monats berechnet werden können
+                if (rule.date.getDayOfMonth() >= 2 && (rule.date.getMonthValue() > 1 || rule.date.getDayOfMonth() >= 8)) {
+                    return new int[]{CompiledHolidaySet.DAY_OF_WEEK_BEFORE_DATE, rule.date.getMonthValue(), index(rule.dayOfWeek), rule.date.getDayOfMonth()};
+                }
+            } else if (adjuster instanceof Generators.DayOfYear) {
+                int dayOfYear = ((Generators.DayOfYear) adjuster).dayOfYear;
+                if (dayOfYear >= 1 && dayOfYear <= 365) {
+                    return new int[]{CompiledHolidaySet.DAY_OF_YEAR, dayOfYear, 0, 0};
+                }
+            } else if (adjuster instanceof Generators.EasterSunday) {
+                return new int[]{CompiledHolidaySet.EASTER_SUNDAY, 0, 0, 0};
+            } else if (adjuster instanceof Generators.Advent) {
+                return new int[]{CompiledHolidaySet.ADVENT, 0, 0, 0};
+            } else if (adjuster instanceof Generators.February29) {
+                return new int[]{CompiledHolidaySet.FEBRUARY_29, 0, 0, 0};
+            }
+            return walk();
+        }
+
+        private static int[] walk() {
+            return new int[]{CompiledHolidaySet.WALK, 0, 0, 0};
+        }
+
+        private static int index(DayOfWeek dayOfWeek) {
+            return dayOfWeek.getValue() - 1;
+        }
+
+        private CompiledHolidaySet link() {
+            int size = instructions.size();
+            int[] kinds = new int[size];
+            int[] a = new int[size];
+            int[] b = new int[size];
+            int[] c = new int[size];
+            for (int i = 0; i < size; i++) {
+                int[] instruction = instructions.get(i);
+                kinds[i] = instruction[0];
+                a[i] = instruction[1];
+                b[i] = instruction[2];
+                c[i] = instruction[3];
+            }
+            return new CompiledHolidaySet(holidays.toArray(new Holiday[0]), kinds, a, b, c);
+        }
+    }
+}
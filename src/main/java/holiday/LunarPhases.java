@@ -0,0 +1,205 @@
+package holiday;
+
+/**
+ * Berechnet die Zeitpunkte der Mondphasen nach Jean Meeus, "Astronomical Algorithms" (2. Auflage, Kapitel 49).
+ * Die Lunationen werden ab dem Neumond vom 6.1.2000 durchnummeriert (k = 0). Der Zeitpunkt einer Phase ergibt sich
+ * aus dem mittleren synodischen Monat und periodischen Korrekturen, die Genauigkeit liegt im Bereich einer Minute.
+ * Um die nächste Phase nach einem Datum zu finden, wird k aus dem mittleren synodischen Monat geschätzt und höchstens
+ * um wenige Lunationen weitergezählt, der Aufwand ist also unabhängig vom Datum konstant.
+ * Alle Methoden arbeiten mit primitiven Werten und erzeugen keine Objekte, Zeitpunkte sind Minuten seit 1.1.1970 UTC.
+ */
+final class LunarPhases {
+
+    static final int NEW_MOON = 0;
+    static final int FIRST_QUARTER = 1;
+    static final int FULL_MOON = 2;
+    static final int LAST_QUARTER = 3;
+
+    static final double SYNODIC_MONTH = 29.530588861;
+    private static final double JDE_K0 = 2451550.09766;
+    private static final double JD_EPOCH = 2440587.5;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private LunarPhases() {
+    }
+
+    /**
+     * @param phase ist eine der Konstanten NEW_MOON bis LAST_QUARTER
+     * @param epochDay ist ein Tag
+     * @return Liefert den Zeitpunkt (auf Minuten abgeschnitten) der ersten Phase, die nach dem angegebenen Tag stattfindet,
+     * also frühestens am Folgetag um 0:00 UTC.
+     */
+    static long nextAfterDay(int phase, long epochDay) {
+        long limit = (epochDay + 1) * MINUTES_PER_DAY;
+        //Die Korrekturen verschieben eine Phase um weniger als einen Tag, eine Lunation Abstand genügt daher als Sicherheit
+        double jd = (double) limit / MINUTES_PER_DAY + JD_EPOCH;
+        long k = (long) Math.floor((jd - JDE_K0) / SYNODIC_MONTH) - 1;
+        long minute = minute(k, phase);
+        while (minute < limit) {
+            k++;
+            minute = minute(k, phase);
+        }
+        return minute;
+    }
+
+    /**
+     * @param phase ist eine der Konstanten NEW_MOON bis LAST_QUARTER
+     * @param epochDay ist ein Tag
+     * @return Liefert den Zeitpunkt (auf Minuten abgeschnitten) der letzten Phase, die vor dem angegebenen Tag stattfindet,
+     * also spätestens am Vortag um 23:59 UTC.
+     */
+    static long previousBeforeDay(int phase, long epochDay) {
+        long limit = epochDay * MINUTES_PER_DAY;
+        double jd = (double) limit / MINUTES_PER_DAY + JD_EPOCH;
+        long k = (long) Math.floor((jd - JDE_K0) / SYNODIC_MONTH) + 1;
+        long minute = minute(k, phase);
+        while (minute >= limit) {
+            k--;
+            minute = minute(k, phase);
+        }
+        return minute;
+    }
+
+    /**
+     * @return Liefert den Zeitpunkt der Phase der Lunation k in Minuten seit 1.1.1970 UTC.
+     */
+    static long minute(long k, int phase) {
+        double jde = jde(k + phase / 4.0, phase);
+        double jd = jde - deltaT(k) / 86400.0;
+        return (long) Math.floor((jd - JD_EPOCH) * MINUTES_PER_DAY);
+    }
+
+    /**
+     * Meeus, Kapitel 49: Zeitpunkt der Phase in Terrestrischer Zeit als julianisches Ephemeridendatum.
+     */
+    private static double jde(double k, int phase) {
+        double t = k / 1236.85;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+        double jde = JDE_K0 + SYNODIC_MONTH * k + 0.00015437 * t2 - 0.000000150 * t3 + 0.00000000073 * t4;
+
+        double e = 1 - 0.002516 * t - 0.0000074 * t2;
+        double e2 = e * e;
+        double m = Math.toRadians(2.5534 + 29.10535670 * k - 0.0000014 * t2 - 0.00000011 * t3);
+        double mm = Math.toRadians(201.5643 + 385.81693528 * k + 0.0107582 * t2 + 0.00001238 * t3 - 0.000000058 * t4);
+        double f = Math.toRadians(160.7108 + 390.67050284 * k - 0.0016118 * t2 - 0.00000227 * t3 + 0.000000011 * t4);
+        double omega = Math.toRadians(124.7746 - 1.56375588 * k + 0.0020672 * t2 + 0.00000215 * t3);
+
+        double correction;
+        if (phase == NEW_MOON || phase == FULL_MOON) {
+            boolean full = phase == FULL_MOON;
+            correction = (full ? -0.40614 : -0.40720) * Math.sin(mm)
+                    + (full ? 0.17302 : 0.17241) * e * Math.sin(m)
+                    + (full ? 0.01614 : 0.01608) * Math.sin(2 * mm)
+                    + (full ? 0.01043 : 0.01039) * Math.sin(2 * f)
+                    + (full ? 0.00734 : 0.00739) * e * Math.sin(mm - m)
+                    + (full ? -0.00515 : -0.00514) * e * Math.sin(mm + m)
+                    + (full ? 0.00209 : 0.00208) * e2 * Math.sin(2 * m)
+                    - 0.00111 * Math.sin(mm - 2 * f)
+                    - 0.00057 * Math.sin(mm + 2 * f)
+                    + 0.00056 * e * Math.sin(2 * mm + m)
+                    - 0.00042 * Math.sin(3 * mm)
+                    + 0.00042 * e * Math.sin(m + 2 * f)
+                    + 0.00038 * e * Math.sin(m - 2 * f)
+                    - 0.00024 * e * Math.sin(2 * mm - m)
+                    - 0.00017 * Math.sin(omega)
+                    - 0.00007 * Math.sin(mm + 2 * m)
+                    + 0.00004 * Math.sin(2 * mm - 2 * f)
+                    + 0.00004 * Math.sin(3 * m)
+                    + 0.00003 * Math.sin(mm + m - 2 * f)
+                    + 0.00003 * Math.sin(2 * mm + 2 * f)
+                    - 0.00003 * Math.sin(mm + m + 2 * f)
+                    + 0.00003 * Math.sin(mm - m + 2 * f)
+                    - 0.00002 * Math.sin(mm - m - 2 * f)
+                    - 0.00002 * Math.sin(3 * mm + m)
+                    + 0.00002 * Math.sin(4 * mm);
+        } else {
+            correction = -0.62801 * Math.sin(mm)
+                    + 0.17172 * e * Math.sin(m)
+                    - 0.01183 * e * Math.sin(mm + m)
+                    + 0.00862 * Math.sin(2 * mm)
+                    + 0.00804 * Math.sin(2 * f)
+                    + 0.00454 * e * Math.sin(mm - m)
+                    + 0.00204 * e2 * Math.sin(2 * m)
+                    - 0.00180 * Math.sin(mm - 2 * f)
+                    - 0.00070 * Math.sin(mm + 2 * f)
+                    - 0.00040 * Math.sin(3 * mm)
+                    - 0.00034 * e * Math.sin(2 * mm - m)
+                    + 0.00032 * e * Math.sin(m + 2 * f)
+                    + 0.00032 * e * Math.sin(m - 2 * f)
+                    - 0.00028 * e2 * Math.sin(mm + 2 * m)
+                    + 0.00027 * e * Math.sin(2 * mm + m)
+                    - 0.00017 * Math.sin(omega)
+                    - 0.00005 * Math.sin(mm - m - 2 * f)
+                    + 0.00004 * Math.sin(2 * mm + 2 * f)
+                    - 0.00004 * Math.sin(mm + m + 2 * f)
+                    + 0.00004 * Math.sin(mm - 2 * m)
+                    + 0.00003 * Math.sin(mm + m - 2 * f)
+                    + 0.00003 * Math.sin(3 * m)
+                    + 0.00002 * Math.sin(2 * mm - 2 * f)
+                    + 0.00002 * Math.sin(mm - m + 2 * f)
+                    - 0.00002 * Math.sin(3 * mm + m);
+            double w = 0.00306 - 0.00038 * e * Math.cos(m) + 0.00026 * Math.cos(mm)
+                    - 0.00002 * Math.cos(mm - m) + 0.00002 * Math.cos(mm + m) + 0.00002 * Math.cos(2 * f);
+            correction += phase == FIRST_QUARTER ? w : -w;
+        }
+
+        //Zusätzliche Korrekturen durch die Planeten, gleich für alle Phasen
+        double additional = 0.000325 * sinDegrees(299.77 + 0.107408 * k - 0.009173 * t2)
+                + 0.000165 * sinDegrees(251.88 + 0.016321 * k)
+                + 0.000164 * sinDegrees(251.83 + 26.651886 * k)
+                + 0.000126 * sinDegrees(349.42 + 36.412478 * k)
+                + 0.000110 * sinDegrees(84.66 + 18.206239 * k)
+                + 0.000062 * sinDegrees(141.74 + 53.303771 * k)
+                + 0.000060 * sinDegrees(207.14 + 2.453732 * k)
+                + 0.000056 * sinDegrees(154.84 + 7.306860 * k)
+                + 0.000047 * sinDegrees(34.52 + 27.261239 * k)
+                + 0.000042 * sinDegrees(207.19 + 0.121824 * k)
+                + 0.000040 * sinDegrees(291.34 + 1.844379 * k)
+                + 0.000037 * sinDegrees(161.72 + 24.198154 * k)
+                + 0.000035 * sinDegrees(239.56 + 25.513099 * k)
+                + 0.000023 * sinDegrees(331.55 + 3.592518 * k);
+
+        return jde + correction + additional;
+    }
+
+    private static double sinDegrees(double degrees) {
+        return Math.sin(Math.toRadians(degrees));
+    }
+
+    /**
+     * Differenz zwischen Terrestrischer Zeit und Weltzeit in Sekunden nach den Polynomen von Espenak und Meeus.
+     * Die Änderung innerhalb einer Lunation ist vernachlässigbar, daher genügt das mittlere Jahr der Lunation.
+     */
+    static double deltaT(long k) {
+        double y = 2000 + (k + 0.5) * SYNODIC_MONTH / 365.2425;
+        double t;
+        if (y < 1900 || y >= 2150) {
+            double u = (y - 1820) / 100;
+            return -20 + 32 * u * u;
+        } else if (y < 1920) {
+            t = y - 1900;
+            return -2.79 + 1.494119 * t - 0.0598939 * t * t + 0.0061966 * t * t * t - 0.000197 * t * t * t * t;
+        } else if (y < 1941) {
+            t = y - 1920;
+            return 21.20 + 0.84493 * t - 0.076100 * t * t + 0.0020936 * t * t * t;
+        } else if (y < 1961) {
+            t = y - 1950;
+            return 29.07 + 0.407 * t - t * t / 233 + t * t * t / 2547;
+        } else if (y < 1986) {
+            t = y - 1975;
+            return 45.45 + 1.067 * t - t * t / 260 - t * t * t / 718;
+        } else if (y < 2005) {
+            t = y - 2000;
+            return 63.86 + 0.3345 * t - 0.060374 * t * t + 0.0017275 * t * t * t + 0.000651814 * t * t * t * t
+                    + 0.00002373599 * t * t * t * t * t;
+        } else if (y < 2050) {
+            t = y - 2000;
+            return 62.92 + 0.32217 * t + 0.005589 * t * t;
+        } else {
+            double u = (y - 1820) / 100;
+            return -20 + 32 * u * u - 0.5628 * (2150 - y);
+        }
+    }
+}
@@ -1,30 +1,28 @@
 package holiday;
 
-import MoonGenerator;
-
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.temporal.ChronoField;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 
 
 /**
  * Enum Klasse zum Ausgeben von Mondphasen.
- * Greift auf die zur Verfügung gestellte Library zur Berechnung der Mondphasen zurück.
+ * Die Zeitpunkte der Mondphasen werden in UTC berechnet (siehe LunarPhases).
  */
 public enum MoonPhases implements Holiday {
-    NEW_MOON (MoonGenerator.PhaseOfTheMoon.NEW_MOON),
-    THIRD_QUARTER (MoonGenerator.PhaseOfTheMoon.THIRD_QUARTER),
-    FULL_MOON (MoonGenerator.PhaseOfTheMoon.FULL_MOON),
-    FIRST_QUARTER (MoonGenerator.PhaseOfTheMoon.FIRST_QUARTER);
+    NEW_MOON (LunarPhases.NEW_MOON),
+    THIRD_QUARTER (LunarPhases.LAST_QUARTER),
+    FULL_MOON (LunarPhases.FULL_MOON),
+    FIRST_QUARTER (LunarPhases.FIRST_QUARTER);
 
 
-    private final MoonGenerator.PhaseOfTheMoon phaseOfTheMoon;
+    private final int phase;
 
 
-    MoonPhases(MoonGenerator.PhaseOfTheMoon phaseOfTheMoon){
-        this.phaseOfTheMoon = phaseOfTheMoon;
+    MoonPhases(int phase){
+        this.phase = phase;
     }
 
 
@@ -46,34 +44,49 @@ public enum MoonPhases implements Holiday {
         return null;
     }
 
+    @Override
+    public long fingerprint() {
+        return new Fingerprint("MoonPhases").add(name()).value();
+    }
+
 
+    /**
+     * Liefert den nächsten Termin der Mondphase, der an einem späteren Tag als temporal liegt.
+     * Unterstützt temporal Uhrzeiten (HOUR_OF_DAY), wird auch die Uhrzeit der Mondphase auf die Minute genau gesetzt.
+     * @param temporal ein beliebiges Temporal Objekt
+     * @return ein verändertes Temporal Objekt, mit dem nächsten Termin der Mondphase
+     */
     @Override
     public Temporal adjustInto(Temporal temporal) {
 
         if (!temporal.isSupported(ChronoField.EPOCH_DAY)){
             throw new IllegalArgumentException();
         }else{
+            RuleEvaluationEvent event = RuleEvents.begin();
+            long minute = LunarPhases.nextAfterDay(phase, temporal.getLong(ChronoField.EPOCH_DAY));
+            long epochDay = Math.floorDiv(minute, 24 * 60);
+            RuleEvents.complete(event, this, temporal, 1);
             if (temporal.isSupported(ChronoField.HOUR_OF_DAY)) {
-                LocalDateTime localDateTime = MoonGenerator.calculateMoon(LocalDate.from(temporal), phaseOfTheMoon).truncatedTo(ChronoUnit.MINUTES);
-                localDateTime.truncatedTo(ChronoUnit.MINUTES);
-                if (LocalDate.from(localDateTime).isAfter(LocalDate.from(LocalDateTime.from(temporal))) && !LocalDate.from(localDateTime).equals(LocalDate.from(LocalDateTime.from(temporal)))){
-                    return temporal.with(localDateTime);
-                }
-                localDateTime = MoonGenerator.calculateMoon(LocalDate.from(temporal).plus(20,ChronoUnit.DAYS), phaseOfTheMoon).truncatedTo(ChronoUnit.MINUTES);
-                return temporal.with(localDateTime);
-            }
-            else{
-                LocalDate localDate = LocalDate.from(MoonGenerator.calculateMoon(LocalDate.from(temporal), phaseOfTheMoon).truncatedTo(ChronoUnit.MINUTES));
-                if (localDate.isAfter(LocalDate.from(temporal)) && !localDate.equals(LocalDate.from(temporal))){
-                    return temporal.with(ChronoField.YEAR, localDate.getYear())
-                            .with(ChronoField.MONTH_OF_YEAR, localDate.getMonthValue())
-                            .with(ChronoField.DAY_OF_MONTH, localDate.getDayOfMonth());
-                }
-                localDate = LocalDate.from(MoonGenerator.calculateMoon(LocalDate.from(temporal).plus(20,ChronoUnit.DAYS), phaseOfTheMoon).truncatedTo(ChronoUnit.MINUTES));
-                return temporal.with(ChronoField.YEAR, localDate.getYear())
-                        .with(ChronoField.MONTH_OF_YEAR, localDate.getMonthValue())
-                        .with(ChronoField.DAY_OF_MONTH, localDate.getDayOfMonth());
+                int minuteOfDay = Math.floorMod(minute, 24 * 60);
+                return temporal.with(LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.of(minuteOfDay / 60, minuteOfDay % 60)));
             }
+            return temporal.with(ChronoField.EPOCH_DAY, epochDay);
         }
     }
+
+    /**
+     * @return Liefert den Tag der ersten Mondphase am oder nach date, mit einer einzigen Berechnung.
+     */
+    @Override
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        return LocalDate.ofEpochDay(Math.floorDiv(LunarPhases.nextAfterDay(phase, date.toEpochDay() - 1), 24 * 60));
+    }
+
+    /**
+     * @return Liefert den Tag der letzten Mondphase vor date, mit einer einzigen Berechnung.
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        return LocalDate.ofEpochDay(Math.floorDiv(LunarPhases.previousBeforeDay(phase, date.toEpochDay()), 24 * 60));
+    }
 }
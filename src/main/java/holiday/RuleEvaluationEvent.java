@@ -0,0 +1,55 @@
+package holiday;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder Event für eine einzelne Auswertung eines aufwendigen Feiertags
+ * (FourDayWeekend, MoonPhases, DependentHoliday).
+ * Das Event ist standardmäßig deaktiviert und muss in der Aufzeichnung über
+ * "holiday.RuleEvaluation#enabled=true" eingeschaltet werden.
+ */
+@Name("holiday.RuleEvaluation")
+@Label("Holiday Rule Evaluation")
+@Category({"Holidays Calendar", "Rules"})
+@Description("Eine Auswertung (adjustInto) eines aufwendigen Feiertags")
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+final class RuleEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Holiday")
+    @Description("Name des ausgewerteten Feiertags")
+    String holiday;
+
+    @Label("Rule Type")
+    @Description("Klasse des ausgewerteten Feiertags")
+    String ruleType;
+
+    @Label("Reference Date")
+    @Description("Datum, ab dem der nächste Termin gesucht wurde")
+    String reference;
+
+    @Label("Iterations")
+    @Description("Anzahl der Suchschritte bzw. Ankerauswertungen")
+    int iterations;
+
+    /**
+     * Beendet die Zeitmessung und schreibt das Event, falls es aktiviert ist und den Schwellwert überschreitet.
+     */
+    void complete(Holiday holiday, Object reference, int iterations) {
+        end();
+        if (shouldCommit()) {
+            this.holiday = holiday.getName();
+            this.ruleType = holiday.getClass().getSimpleName();
+            this.reference = String.valueOf(reference);
+            this.iterations = iterations;
+            commit();
+        }
+    }
+}
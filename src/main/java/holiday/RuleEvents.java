@@ -0,0 +1,32 @@
+package holiday;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Hilfsmethoden zum Erzeugen von RuleEvaluationEvents.
+ * Solange der Flight Recorder nicht läuft, wird kein Event erzeugt, da bereits das Laden einer Event-Klasse
+ * den Flight Recorder initialisiert und damit den Programmstart um mehrere hundert Millisekunden verzögert.
+ */
+final class RuleEvents {
+
+    private RuleEvents() {
+    }
+
+    /**
+     * @return liefert ein gestartetes Event oder null, falls der Flight Recorder nicht läuft
+     */
+    static RuleEvaluationEvent begin() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        RuleEvaluationEvent event = new RuleEvaluationEvent();
+        event.begin();
+        return event;
+    }
+
+    static void complete(RuleEvaluationEvent event, Holiday holiday, Object reference, int iterations) {
+        if (event != null) {
+            event.complete(holiday, reference, iterations);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package holiday;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+
+/**
+ * Die Klasse ValidHoliday dekoriert einen Feiertag, der nur in den Jahren fromYear bis toYear (beide inklusive) gilt,
+ * z.B. den Buß- und Bettag, der 1995 in den meisten Bundesländern als gesetzlicher Feiertag abgeschafft wurde.
+ * Vor fromYear beginnt die Suche am 31.12. des Vorjahres von fromYear, nach toYear gibt es keinen Termin mehr.
+ * Ein HolidayManager erkennt den Dekorierer und fragt ihn in Jahren außerhalb seiner Gültigkeit gar nicht erst ab.
+ */
+public final class ValidHoliday implements Holiday {
+
+    //Offene Grenzen
+    public static final int NO_START = Year.MIN_VALUE;
+    public static final int NO_END = Year.MAX_VALUE;
+
+    private final Holiday holiday;
+    private final int fromYear;
+    private final int toYear;
+    //Tag vor dem ersten Tag der Gültigkeit und erster Tag danach als Epoch Days
+    private final long origin;
+    private final long endDay;
+
+    /**
+     * @param holiday ist der zu dekorierende Feiertag
+     * @param fromYear ist das erste Jahr der Gültigkeit oder NO_START
+     * @param toYear ist das letzte Jahr der Gültigkeit oder NO_END
+     */
+    public ValidHoliday(Holiday holiday, int fromYear, int toYear) {
+        if (holiday == null) {
+            throw new NullPointerException();
+        }
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("toYear war vor fromYear");
+        }
+        this.holiday = holiday;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.origin = fromYear == NO_START ? Long.MIN_VALUE : LocalDate.of(fromYear, 1, 1).toEpochDay() - 1;
+        this.endDay = toYear == NO_END ? Long.MAX_VALUE : LocalDate.of(toYear, 12, 31).toEpochDay() + 1;
+    }
+
+    /**
+     * @return Liefert einen Feiertag, der ab dem angegebenen Jahr gilt.
+     */
+    public static ValidHoliday since(Holiday holiday, int fromYear) {
+        return new ValidHoliday(holiday, fromYear, NO_END);
+    }
+
+    /**
+     * @return Liefert einen Feiertag, der bis einschließlich zum angegebenen Jahr gilt.
+     */
+    public static ValidHoliday until(Holiday holiday, int toYear) {
+        return new ValidHoliday(holiday, NO_START, toYear);
+    }
+
+    /**
+     * @return Liefert den dekorierten Feiertag.
+     */
+    public Holiday getHoliday() {
+        return this.holiday;
+    }
+
+    public int getFromYear() {
+        return this.fromYear;
+    }
+
+    public int getToYear() {
+        return this.toYear;
+    }
+
+    /**
+     * @return wahr, falls der Feiertag in mindestens einem der Jahre from bis to gilt
+     */
+    public boolean isValidBetween(int from, int to) {
+        return from <= this.toYear && to >= this.fromYear;
+    }
+
+    @Override
+    public String getName() {
+        return this.holiday.getName();
+    }
+
+    /**
+     * @return Liefert den Fingerabdruck aus Gültigkeit und Feiertag, bzw. Fingerprint.UNKNOWN, falls der Feiertag unbekannt ist.
+     */
+    @Override
+    public long fingerprint() {
+        long holidayFingerprint = holiday.fingerprint();
+        if (holidayFingerprint == Fingerprint.UNKNOWN) {
+            return Fingerprint.UNKNOWN;
+        }
+        return new Fingerprint("Valid").add(fromYear).add(toYear).add(holidayFingerprint).value();
+    }
+
+    @Override
+    public Temporal adjustInto(Temporal temporal) {
+        if (!temporal.isSupported(ChronoField.EPOCH_DAY)) {
+            throw new IllegalArgumentException("Parameter temporal unterstützt nicht das Feld Epoch Day");
+        }
+        long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+        if (epochDay >= this.endDay - 1) {
+            return null;
+        }
+        Temporal start = epochDay < this.origin ? temporal.with(ChronoField.EPOCH_DAY, this.origin) : temporal;
+        Temporal result = start.with(this.holiday);
+        if (result == null || result.getLong(ChronoField.EPOCH_DAY) >= this.endDay) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * @return Liefert den ersten gültigen Termin am oder nach date oder null.
+     */
+    @Override
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay >= this.endDay) {
+            return null;
+        }
+        LocalDate result = this.holiday.firstOnOrAfter(epochDay <= this.origin ? LocalDate.ofEpochDay(this.origin + 1) : date);
+        return result == null || result.toEpochDay() >= this.endDay ? null : result;
+    }
+
+    /**
+     * @return Liefert den letzten gültigen Termin vor date oder null.
+     */
+    @Override
+    public LocalDate previous(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay <= this.origin + 1) {
+            return null;
+        }
+        LocalDate result = this.holiday.previous(epochDay > this.endDay ? LocalDate.ofEpochDay(this.endDay) : date);
+        return result == null || result.toEpochDay() <= this.origin ? null : result;
+    }
+
+    public String toString() {
+        return this.holiday.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) return true;
+        if (!(other instanceof ValidHoliday)) {
+            return false;
+        }
+        ValidHoliday valid = (ValidHoliday) other;
+        return this.holiday.equals(valid.holiday) && this.fromYear == valid.fromYear && this.toYear == valid.toYear;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.holiday.hashCode() + this.fromYear) + this.toYear;
+    }
+}